@@ -1,17 +1,40 @@
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This is a backend class for an app that reads in a paths between buildings, returns the shortest
  * path between 2 buildings, and various statistics on the data set
+ *
+ * The data set is kept as a series of versions. Reading data again builds a new graph off to the
+ * side and then swaps it in with one atomic reference update, so queries never see a half loaded
+ * graph. Each query reads the current version once and finishes on it even if a new version is
+ * published in the meantime, and an old version is garbage collected as soon as the last query
+ * using it is done. Routes and trees are cached per version, so they are dropped with it.
+ *
+ * When only a few paths in the .DOT file change, reloadChanges() or watch() apply just those
+ * changes in a new version, keep every cached route they cannot affect, and repair cached trees.
  * 
  * @author noahkornfeld
  *
@@ -19,8 +42,108 @@ import java.util.regex.Pattern;
 public class Backend implements BackendInterface {
 
   // class variables
-  GraphADT<String, Double> graph;
-  private double totalEdgeWeight = 0.0;
+  // the graph of the current version, which the frontend checks building names against
+  volatile DijkstraGraph<String, Double> graph;
+
+  // the version that queries are answered from, replaced whenever data is read
+  private final AtomicReference<Version> current;
+  // held while reading data, so only one new version is built at a time
+  private final Object loadLock = new Object();
+
+  // recently requested routes are cached, up to this many per version
+  public static final int DEFAULT_ROUTE_CACHE_CAPACITY = 1024;
+  private final int routeCacheCapacity;
+  // shortest path trees are cached for up to this many start buildings per version, since each
+  // tree holds a path to every building
+  public static final int DEFAULT_TREE_CACHE_CAPACITY = 64;
+  private final int treeCacheCapacity;
+
+  // how long a watched file has to stay unchanged before it is reloaded, since editors often
+  // write a file in several steps
+  public static final long WATCH_SETTLE_MILLIS = 100;
+
+  /**
+   * One version of the data set: its graph, the total walking time of its paths, the .DOT file and
+   * walking time resolution it was read with, and the routes and shortest path trees found in it
+   * along with the graph modification count they were found at (the caches are emptied if the
+   * graph is changed directly)
+   */
+  private static class Version {
+    private final long number;
+    private final DijkstraGraph<String, Double> graph;
+    private final double totalEdgeWeight;
+    private final String filePath; // null when the data was not read from a .DOT file
+    private final double resolution;
+    private final RouteCache routeCache;
+    private long routeCacheModCount = -1;
+    // trees by start building, with the least recently used one first
+    private final LinkedHashMap<String, ShortestPathTree<String>> treeCache;
+    private long treeCacheModCount = -1;
+
+    private Version(long number, DijkstraGraph<String, Double> graph, double totalEdgeWeight,
+        String filePath, double resolution, RouteCache routeCache, int treeCacheCapacity) {
+      this.number = number;
+      this.graph = graph;
+      this.totalEdgeWeight = totalEdgeWeight;
+      this.filePath = filePath;
+      this.resolution = resolution;
+      this.routeCache = routeCache;
+      // access order makes the eldest entry the least recently used one
+      this.treeCache = new LinkedHashMap<String, ShortestPathTree<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ShortestPathTree<String>> eldest) {
+          return size() > treeCacheCapacity;
+        }
+      };
+    }
+  }
+
+  /**
+   * A path whose walking time differs between the graph and the .DOT file, where an infinite
+   * walking time stands for a path that is missing
+   */
+  private static class PathChange {
+    private final String pred;
+    private final String succ;
+    private final double oldWeight;
+    private final double newWeight;
+
+    private PathChange(String pred, String succ, double oldWeight, double newWeight) {
+      this.pred = pred;
+      this.succ = succ;
+      this.oldWeight = oldWeight;
+      this.newWeight = newWeight;
+    }
+  }
+
+  /**
+   * The distinct paths of a parsed .DOT file with the walking times loading it gives them, and a
+   * table to find each path by the ids of its buildings
+   */
+  private static class DistinctPaths {
+    private int count = 0;
+    private final int[] preds;
+    private final int[] succs;
+    private final Double[] weights;
+    private double totalEdgeWeight = 0.0;
+    // open addressing table from (pred, succ) to the index of that path
+    private final long[] keys;
+    private final int[] indexes;
+
+    private DistinctPaths(int pathCount) {
+      preds = new int[pathCount];
+      succs = new int[pathCount];
+      weights = new Double[pathCount];
+      int capacity = Integer.highestOneBit(Math.max(2, pathCount) * 2 - 1) << 1;
+      keys = new long[capacity];
+      indexes = new int[capacity];
+      Arrays.fill(indexes, -1);
+    }
+
+    private int indexOf(int pred, int succ) {
+      return indexes[edgeSlot(keys, indexes, pred, succ)];
+    }
+  }
 
   /**
    * constructor that takes in a Dijkstra Graph to use
@@ -28,11 +151,46 @@ public class Backend implements BackendInterface {
    * @param graph the graph to add nodes too
    */
   public Backend(DijkstraGraph<String, Double> graph) {
+    this(graph, DEFAULT_ROUTE_CACHE_CAPACITY);
+  }
+
+  /**
+   * constructor that takes in a Dijkstra Graph to use and the number of routes to cache. The first
+   * data read is added to this graph, and later reads replace it with new graphs.
+   * 
+   * @param graph              the graph to add nodes too
+   * @param routeCacheCapacity the largest number of routes getShortestPath() keeps cached
+   * @throws IllegalArgumentException if routeCacheCapacity is less than one
+   */
+  public Backend(DijkstraGraph<String, Double> graph, int routeCacheCapacity) {
+    this(graph, routeCacheCapacity, DEFAULT_TREE_CACHE_CAPACITY);
+  }
+
+  /**
+   * constructor that takes in a Dijkstra Graph to use, the number of routes to cache and the
+   * number of start buildings to cache shortest path trees for
+   * 
+   * @param graph              the graph to add nodes too
+   * @param routeCacheCapacity the largest number of routes getShortestPath() keeps cached
+   * @param treeCacheCapacity  the largest number of trees cacheShortestPathTree() keeps cached,
+   *                           after which the least recently used tree is dropped
+   * @throws IllegalArgumentException if either capacity is less than one
+   */
+  public Backend(DijkstraGraph<String, Double> graph, int routeCacheCapacity,
+      int treeCacheCapacity) {
+    if (treeCacheCapacity < 1) {
+      throw new IllegalArgumentException("Tree cache capacity must be at least one");
+    }
     this.graph = graph;
+    this.routeCacheCapacity = routeCacheCapacity;
+    this.treeCacheCapacity = treeCacheCapacity;
+    this.current = new AtomicReference<>(new Version(0, graph, 0.0, null, 0.0,
+        new RouteCache(routeCacheCapacity), treeCacheCapacity));
   }
 
   public static void main(String[] args) {
-    DijkstraGraph<String,Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    DijkstraGraph<String,Double> graph =
+        new DijkstraGraph<String, Double>(new OpenAddressingMap<>());
     Backend backend = new Backend(graph);
     Scanner scanner = new Scanner(System.in);
     Frontend frontend = new Frontend(backend, scanner);
@@ -41,42 +199,138 @@ public class Backend implements BackendInterface {
 
   /**
    * Overridden method that reads in a .DOT data file and turns it into a fully functioning Dijkstra
-   * Graph
+   * Graph. Reading another file replaces the data set with the one in that file.
    * 
    * @throws FileNotFoundException if the file does not exist
    */
   @Override
   public void readData(String filePath) throws FileNotFoundException {
+    readData(filePath, 0.0);
+  }
+
+  /**
+   * Reads in a .DOT data file like readData(String), optionally rounding every walking time to the
+   * nearest multiple of a resolution, such as 0.1 for tenths of a second. Rounded walking times
+   * let the graph search with a bucket queue instead of a heap. Each rounded walking time is within
+   * resolution / 2 of the one in the file, so a route of k hops is reported within
+   * k * resolution / 2 of its exact walking time, and no route found is more than
+   * (k + j) * resolution / 2 slower than the exact shortest route, where j is the number of hops on
+   * that exact shortest route.
+   * 
+   * @param filePath   the path of the .DOT file
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   * @throws FileNotFoundException    if the file does not exist
+   * @throws IllegalArgumentException if resolution is negative
+   */
+  public void readData(String filePath, double resolution) throws FileNotFoundException {
+    if (!(resolution >= 0)) {
+      throw new IllegalArgumentException("resolution cannot be negative");
+    }
     File file = new File(filePath); // reads file in
     if (!file.exists()) { // throws FileNotFound exception if file does not exist
       throw new FileNotFoundException("File Does Not Exist");
     }
+    try {
+      // parse the whole file in parallel, then build the graph from it
+      publishParsed(DotFileParser.parse(filePath), filePath, resolution);
+    } catch (NumberFormatException e) {
+      e.printStackTrace();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
 
-    // line reader to read each line of the DOT file
-    BufferedReader reader = new BufferedReader(new FileReader(filePath));
-    String line; // current line reader is on
-    // Regex expression to split line into Node1, Node2, and Edge Cost (Weight)
-    Pattern pattern = Pattern.compile("\\s*\"([^\"]*)\" -- \"([^\"]*)\" \\[seconds=([0-9.]+)\\];");
+  /**
+   * Helper method that builds the next version of the data set from parsed paths and publishes it.
+   * The first version is built in the graph passed to the constructor, so it is added to whatever
+   * that graph already holds, and every later version gets a new graph of its own.
+   *
+   * @param parsed     the buildings and paths read from a .DOT file
+   * @param filePath   the path of the .DOT file, or null if it was not read from a file
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   */
+  private void publishParsed(DotFileParser.Result parsed, String filePath, double resolution) {
+    synchronized (loadLock) {
+      Version old = current.get();
+      DijkstraGraph<String, Double> target =
+          old.number == 0 ? old.graph : newGraph(old, resolution);
+      double totalEdgeWeight = insertParsed(target, parsed, resolution);
+      publish(new Version(old.number + 1, target, totalEdgeWeight, filePath, resolution,
+          new RouteCache(routeCacheCapacity), treeCacheCapacity));
+    }
+  }
 
+  /**
+   * Helper method that creates the empty graph for a new version, with the same frontier, edge
+   * index and concurrency mode as the graph of the version it replaces. A bucket queue is only
+   * kept when neither version rounds its walking times: one chosen because the old version's
+   * walking times were rounded might not fit exact ones, and rounded walking times get a bucket
+   * queue of their own resolution.
+   *
+   * @param old        the version being replaced
+   * @param resolution the walking time resolution of the new version, or 0 if it is exact
+   * @return the new graph
+   */
+  private static DijkstraGraph<String, Double> newGraph(Version old, double resolution) {
+    DijkstraGraph<String, Double> graph =
+        new DijkstraGraph<String, Double>(new OpenAddressingMap<>());
+    Frontier.Type frontierType = old.graph.getFrontierType();
+    if (frontierType != Frontier.Type.DIAL_BUCKET) {
+      graph.setFrontier(frontierType, old.graph.getFrontierArity());
+    } else if (old.resolution == 0 && resolution == 0) {
+      graph.setBucketQueue(old.graph.getBucketWidth());
+    }
+    graph.setEdgeIndex(old.graph.hasEdgeIndex());
+    graph.setConcurrent(old.graph.isConcurrent());
+    return graph;
+  }
 
-    try {
-      // while there is still another line to read
-      while ((line = reader.readLine()) != null) {
-        Matcher matcher = pattern.matcher(line);
-        if (matcher.find()) { // if the pattern is found in the line
-          // match node 1 to group 1, node 2 to group 2 and weight to group
-          String node1 = matcher.group(1);
-          String node2 = matcher.group(2);
-          double weight = Double.parseDouble(matcher.group(3));
+  /**
+   * Helper method that makes a version the current one. Must only be called while holding
+   * loadLock.
+   *
+   * @param version the version to publish
+   */
+  private void publish(Version version) {
+    current.set(version);
+    graph = version.graph;
+  }
+
+  /**
+   * Helper method that inserts parsed paths into the graph and freezes it. A path keeps the first
+   * walking time listed for it, except that each time the path in the other direction is listed
+   * afterwards, it takes that walking time instead. Every listed walking time counts towards the
+   * total, repeated paths included.
+   *
+   * @param graph      the graph to insert the paths into
+   * @param parsed     the buildings and paths read from a .DOT file
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   * @return the total walking time of the inserted paths
+   */
+  private static double insertParsed(DijkstraGraph<String, Double> graph,
+      DotFileParser.Result parsed, double resolution) {
+    double totalEdgeWeight = 0.0;
+    if (graph.getNodeCount() == 0) {
+      totalEdgeWeight = insertAll(graph, parsed, resolution);
+    } else {
+      // paths have to be merged into the ones already in the graph one at a time, and the edge
+      // index keeps each containsEdge() constant time even for buildings with many paths
+      graph.setEdgeIndex(true);
+      List<String> names = parsed.getNames();
+      // one edit for the whole merge, so a graph in concurrent mode publishes one snapshot at the
+      // end instead of copying the whole graph after every path
+      graph.edit(() -> {
+        for (int i = 0; i < parsed.getPathCount(); i++) {
+          String node1 = names.get(parsed.getPred(i));
+          String node2 = names.get(parsed.getSucc(i));
+          double weight = round(parsed.getWeight(i), resolution);
 
           // insert nodes and edges if they do not already exist
           if (!graph.containsNode(node1)) {
             graph.insertNode(node1);
-
           }
           if (!graph.containsNode(node2)) {
             graph.insertNode(node2);
-
           }
           if (!graph.containsEdge(node1, node2)) {
             graph.insertEdge(node1, node2, weight);
@@ -84,10 +338,114 @@ public class Backend implements BackendInterface {
           if (graph.containsEdge(node2, node1)) {
             graph.insertEdge(node2, node1, weight);
           }
-          totalEdgeWeight += weight; // add weight to totalEdgeWeight
         }
+      });
+      for (int i = 0; i < parsed.getPathCount(); i++) {
+        totalEdgeWeight += round(parsed.getWeight(i), resolution); // every listed path counts
+      }
+    }
+    if (resolution > 0) {
+      graph.setBucketQueue(resolution); // rounded walking times fit a bucket queue
+    }
+    graph.freeze(); // the graph is only read from now on, so serve queries from a snapshot
+    return totalEdgeWeight;
+  }
+
+  /**
+   * Helper method that inserts parsed paths into the empty graph all at once, with a hashed table
+   * of the edges inserted so far in place of containsEdge()
+   *
+   * @param graph      the empty graph to insert the paths into
+   * @param parsed     the buildings and paths read from a .DOT file
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   * @return the total walking time of the inserted paths
+   */
+  private static double insertAll(DijkstraGraph<String, Double> graph,
+      DotFileParser.Result parsed, double resolution) {
+    DistinctPaths paths = distinctPaths(parsed, resolution);
+    graph.insertAll(parsed.getNames(), Arrays.copyOf(paths.preds, paths.count),
+        Arrays.copyOf(paths.succs, paths.count),
+        Arrays.asList(paths.weights).subList(0, paths.count));
+    return paths.totalEdgeWeight;
+  }
+
+  /**
+   * Helper method that finds the distinct paths of a parsed .DOT file, with a hashed table of the
+   * paths found so far in place of containsEdge(). A path keeps the first walking time listed for
+   * it, except that each time the path in the other direction is listed afterwards, it takes that
+   * walking time instead.
+   *
+   * @param parsed     the buildings and paths read from a .DOT file
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   * @return the distinct paths, in the order they are first listed
+   */
+  private static DistinctPaths distinctPaths(DotFileParser.Result parsed, double resolution) {
+    int pathCount = parsed.getPathCount();
+    DistinctPaths paths = new DistinctPaths(pathCount);
+    for (int i = 0; i < pathCount; i++) {
+      int pred = parsed.getPred(i);
+      int succ = parsed.getSucc(i);
+      double weight = round(parsed.getWeight(i), resolution);
+      int slot = edgeSlot(paths.keys, paths.indexes, pred, succ);
+      if (paths.indexes[slot] == -1) {
+        paths.keys[slot] = (long) pred << 32 | succ;
+        paths.indexes[slot] = paths.count;
+        paths.preds[paths.count] = pred;
+        paths.succs[paths.count] = succ;
+        paths.weights[paths.count] = weight;
+        paths.count++;
+      }
+      int reverse = paths.indexOf(succ, pred);
+      if (reverse != -1) {
+        paths.weights[reverse] = weight;
       }
-      reader.close(); // end reader
+      paths.totalEdgeWeight += weight; // add weight to totalEdgeWeight
+    }
+    return paths;
+  }
+
+  /**
+   * Helper method that rounds a walking time to the nearest multiple of a resolution
+   *
+   * @param weight     the walking time to round
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   * @return the rounded walking time
+   */
+  private static double round(double weight, double resolution) {
+    return resolution > 0 ? Math.round(weight / resolution) * resolution : weight;
+  }
+
+  /**
+   * Helper method that finds the slot of an edge in the table used by insertAll(), or the empty
+   * slot it would go in
+   */
+  private static int edgeSlot(long[] keys, int[] edges, int pred, int succ) {
+    long key = (long) pred << 32 | succ;
+    int mask = keys.length - 1;
+    long hash = key * 0x9E3779B97F4A7C15L;
+    int slot = (int) (hash ^ (hash >>> 32)) & mask;
+    while (edges[slot] != -1 && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Reads .DOT data from a Reader instead of a file, such as a graph streamed from a DotGenerator,
+   * rounding walking times to the given resolution as readData(String, double) does. The reader is
+   * closed once all of it has been read.
+   * 
+   * @param source     the reader to read the .DOT data from
+   * @param resolution the walking time resolution to round to, or 0 to keep walking times exact
+   * @throws IllegalArgumentException if resolution is negative
+   */
+  public void readData(Reader source, double resolution) {
+    if (!(resolution >= 0)) {
+      throw new IllegalArgumentException("resolution cannot be negative");
+    }
+
+    try {
+      publishParsed(DotFileParser.parse(source), null, resolution);
     } catch (NumberFormatException e) {
       e.printStackTrace();
     } catch (IOException e) {
@@ -95,7 +453,313 @@ public class Backend implements BackendInterface {
     }
   }
 
+  /**
+   * Writes the graph read by readData() to a binary snapshot file, which readSnapshot() can load
+   * much faster than readData() can parse the .DOT file it came from
+   * 
+   * @param filePath the path of the snapshot file
+   * @throws IOException if the file cannot be written
+   */
+  public void writeSnapshot(String filePath) throws IOException {
+    Version version = current.get();
+    GraphSnapshot.write(version.graph.freeze(), version.totalEdgeWeight, filePath);
+  }
+
+  /**
+   * Loads a snapshot file written by writeSnapshot() as the next version of the data set. The
+   * paths, statistics and frontier are the same as those of the Backend that wrote it. Like the
+   * first readData(), the first load goes into the graph passed to the constructor, which must be
+   * empty, and later loads replace the data set.
+   * 
+   * @param filePath the path of the snapshot file
+   * @throws IOException              if the file cannot be read or is not a valid snapshot
+   * @throws IllegalArgumentException if nothing was read yet and the graph passed to the
+   *                                  constructor already has buildings
+   */
+  public void readSnapshot(String filePath) throws IOException {
+    synchronized (loadLock) {
+      Version old = current.get();
+      if (old.number == 0 && old.graph.getNodeCount() > 0) {
+        throw new IllegalArgumentException("snapshots can only be loaded into an empty graph");
+      }
+      GraphSnapshot snapshot = GraphSnapshot.read(filePath);
+      DijkstraGraph<String, Double> target = old.number == 0 ? old.graph : newGraph(old, 0.0);
+      target.load(snapshot.getGraph());
+      publish(new Version(old.number + 1, target, snapshot.getTotalWeight(), null, 0.0,
+          new RouteCache(routeCacheCapacity), treeCacheCapacity));
+    }
+  }
 
+  /**
+   * getter method that returns the number of times data has been read, which goes up by one each
+   * time a new version of the data set is published
+   *
+   * @return the number of the current version, 0 before any data is read
+   */
+  public long getVersion() {
+    return current.get().number;
+  }
+
+  /**
+   * Reads the .DOT file that the current data set was read from again, and applies only the paths
+   * that were added, removed or given a new walking time since, instead of parsing them all into a
+   * new graph. Like any other read, the changes go into a new version with a graph of its own: the
+   * current graph is loaded into a new graph, the changes are made there in one edit, and the new
+   * version is published once it is frozen, so queries that started on the current version finish
+   * on it unchanged. Cached routes that none of the changes can affect are kept, and cached trees
+   * are kept or repaired, so apart from copying the graph, the work done after parsing grows with
+   * the number of changed paths rather than the size of the map.
+   *
+   * @return the number of paths that were added, removed or given a new walking time
+   * @throws IllegalStateException if the current data set was not read from a .DOT file
+   * @throws IOException           if the file cannot be read
+   */
+  public int reloadChanges() throws IOException {
+    synchronized (loadLock) {
+      Version old = current.get();
+      if (old.filePath == null) {
+        throw new IllegalStateException("the data set was not read from a .DOT file");
+      }
+      DotFileParser.Result parsed = DotFileParser.parse(old.filePath);
+      DistinctPaths paths = distinctPaths(parsed, old.resolution);
+      List<String> names = parsed.getNames();
+      NodeDictionary<String> fileIds = new NodeDictionary<String>(names.toArray(new String[0]));
+      FrozenGraph<String> before = old.graph.freeze();
+
+      // copy the caches, since queries on the old version keep using its own
+      RouteCache routeCache;
+      List<ShortestPathTree<String>> trees = new ArrayList<>();
+      synchronized (old) {
+        boolean upToDate = old.routeCacheModCount == old.graph.getModCount();
+        routeCache = upToDate ? old.routeCache.copy() : new RouteCache(routeCacheCapacity);
+        if (old.treeCacheModCount == old.graph.getModCount()) {
+          trees.addAll(old.treeCache.values()); // least recently used first
+        }
+      }
+
+      // diff the paths in the graph against the ones in the file
+      Object[] buildings = ((FrozenGraph<?>) before).nodeData;
+      boolean[] inGraph = new boolean[paths.count];
+      List<PathChange> changes = new ArrayList<>();
+      Set<String> removedBuildings = new HashSet<>();
+      for (int id = 0; id < buildings.length; id++) {
+        if (buildings[id] == null) {
+          continue;
+        }
+        String pred = (String) buildings[id];
+        int filePred = fileIds.idOf(pred);
+        if (filePred == -1) {
+          removedBuildings.add(pred);
+        }
+        for (int e = before.offsets[id]; e < before.offsets[id + 1]; e++) {
+          String succ = (String) buildings[before.targets[e]];
+          int fileSucc = fileIds.idOf(succ);
+          int path = filePred == -1 || fileSucc == -1 ? -1 : paths.indexOf(filePred, fileSucc);
+          double weight = Double.POSITIVE_INFINITY;
+          if (path != -1) {
+            inGraph[path] = true;
+            weight = paths.weights[path];
+          }
+          if (weight != before.weights[e]) {
+            changes.add(new PathChange(pred, succ, before.weights[e], weight));
+          }
+        }
+      }
+      for (int path = 0; path < paths.count; path++) {
+        if (!inGraph[path]) {
+          changes.add(new PathChange(names.get(paths.preds[path]), names.get(paths.succs[path]),
+              Double.POSITIVE_INFINITY, paths.weights[path]));
+        }
+      }
+      if (changes.isEmpty() && removedBuildings.isEmpty()
+          && paths.totalEdgeWeight == old.totalEdgeWeight) {
+        return 0;
+      }
+
+      // the node ids of the loaded graph are the ones in before, so cached trees still fit it
+      DijkstraGraph<String, Double> graph = newGraph(old, old.resolution);
+      graph.load(before);
+      graph.edit(() -> {
+        for (PathChange change : changes) {
+          if (change.newWeight == Double.POSITIVE_INFINITY) {
+            graph.removeEdge(change.pred, change.succ);
+          } else {
+            graph.insertNode(change.pred);
+            graph.insertNode(change.succ);
+            graph.insertEdge(change.pred, change.succ, change.newWeight);
+          }
+        }
+        for (String building : removedBuildings) {
+          graph.removeNode(building);
+        }
+      });
+      // the graph is only read from now on, so serve queries from a snapshot
+      FrozenGraph<String> after = graph.freeze();
+
+      // keep the routes and trees none of the changes can affect
+      Set<List<String>> changedPaths = new HashSet<>();
+      List<String> changedPreds = new ArrayList<>();
+      List<String> changedSuccs = new ArrayList<>();
+      for (PathChange change : changes) {
+        changedPaths.add(List.of(change.pred, change.succ));
+        changedPreds.add(change.pred);
+        changedSuccs.add(change.succ);
+      }
+      routeCache.removeIf(
+          route -> isAffected(route, after, changes, changedPaths, removedBuildings));
+      Version next = new Version(old.number + 1, graph, paths.totalEdgeWeight, old.filePath,
+          old.resolution, routeCache, treeCacheCapacity);
+      next.routeCacheModCount = graph.getModCount();
+      next.treeCacheModCount = graph.getModCount();
+      for (ShortestPathTree<String> tree : trees) {
+        if (removedBuildings.contains(tree.getStart())) {
+          continue;
+        }
+        if (isAffected(tree, changes)) {
+          // trees are kept for busy start buildings, so repair them instead of dropping them
+          tree = graph.repairShortestPathTree(tree, changedPreds, changedSuccs);
+        }
+        next.treeCache.put(tree.getStart(), tree);
+      }
+      publish(next);
+      return changes.size();
+    }
+  }
+
+  /**
+   * Helper method that checks whether a cached route may no longer be the shortest one once the
+   * graph has been changed. A route is affected when it starts or ends at a removed building, when
+   * one of its paths changed, or when a path that got shorter could lead to a shorter route. A
+   * shortened path from pred to succ only does if the walk from the route's start to pred, the
+   * path itself and the walk from succ to its destination cost less than the route, so both walks
+   * are searched for with the route's cost as the limit, and neither search explores buildings
+   * farther away than the route is long.
+   *
+   * @param route            the cached route
+   * @param snapshot         the changed graph
+   * @param changes          the paths that were changed
+   * @param changedPaths     the (pred, succ) pairs of those paths
+   * @param removedBuildings the buildings that were removed
+   * @return true if the route has to be searched for again, false otherwise
+   */
+  private static boolean isAffected(ShortestPathInterface route, FrozenGraph<String> snapshot,
+      List<PathChange> changes, Set<List<String>> changedPaths, Set<String> removedBuildings) {
+    List<String> path = route.getPath();
+    String destination = path.get(path.size() - 1);
+    if (removedBuildings.contains(path.get(0)) || removedBuildings.contains(destination)) {
+      return true;
+    }
+    for (int i = 0; i + 1 < path.size(); i++) {
+      if (changedPaths.contains(List.of(path.get(i), path.get(i + 1)))) {
+        return true;
+      }
+    }
+    double cost = route.totalPathCost();
+    for (PathChange change : changes) {
+      if (change.newWeight < change.oldWeight && change.newWeight < cost) {
+        double limit = cost - change.newWeight;
+        double toPred = snapshot.shortestPathCost(path.get(0), change.pred, limit);
+        if (toPred != Double.POSITIVE_INFINITY && snapshot.shortestPathCost(change.succ,
+            destination, limit - toPred) != Double.POSITIVE_INFINITY) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Helper method that checks whether a cached tree may no longer hold shortest paths once the
+   * graph has been changed
+   *
+   * @param tree    the cached tree
+   * @param changes the paths that were changed
+   * @return true if the tree has to be repaired, false otherwise
+   */
+  private static boolean isAffected(ShortestPathTree<String> tree, List<PathChange> changes) {
+    for (PathChange change : changes) {
+      if (tree.isAffectedBy(change.pred, change.succ, change.newWeight)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Watches the .DOT file that the current data set was read from, and calls reloadChanges() on a
+   * background thread whenever the file is written or replaced. Changes are applied once the file
+   * has not changed for WATCH_SETTLE_MILLIS. Errors reading the file are printed and the file
+   * keeps being watched. Events are ignored once the data set is read from another file.
+   *
+   * @return a handle whose close() stops watching the file
+   * @throws IllegalStateException if the current data set was not read from a .DOT file
+   * @throws IOException           if the file's directory cannot be watched
+   */
+  public Closeable watch() throws IOException {
+    String filePath = current.get().filePath;
+    if (filePath == null) {
+      throw new IllegalStateException("the data set was not read from a .DOT file");
+    }
+    Path file = Paths.get(filePath).toAbsolutePath();
+    WatchService watcher = file.getFileSystem().newWatchService();
+    file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY);
+    Thread thread = new Thread(() -> watchFile(watcher, filePath, file), "DOT file watcher");
+    thread.setDaemon(true);
+    thread.start();
+    return watcher;
+  }
+
+  /**
+   * Helper method that waits for changes to a watched file and reloads them, until the watch
+   * service is closed
+   *
+   * @param watcher  the watch service registered on the file's directory
+   * @param filePath the path of the file as it was read
+   * @param file     the absolute path of the file
+   */
+  private void watchFile(WatchService watcher, String filePath, Path file) {
+    try {
+      while (true) {
+        if (!changedFile(watcher.take(), file)) {
+          continue;
+        }
+        // wait for the directory to stay unchanged before reading the file
+        WatchKey key = watcher.poll(WATCH_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        while (key != null) {
+          changedFile(key, file);
+          key = watcher.poll(WATCH_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        if (filePath.equals(current.get().filePath)) {
+          try {
+            reloadChanges();
+          } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+          }
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // stopped watching
+    }
+  }
+
+  /**
+   * Helper method that takes the events of a watch key and resets it
+   *
+   * @param key  the watch key with pending events
+   * @param file the absolute path of the watched file
+   * @return true if one of the events was for the watched file, false otherwise
+   */
+  private static boolean changedFile(WatchKey key, Path file) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (file.getFileName().equals(event.context())) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
 
   /**
    * Overridden method that returns a string containing the statistics about the data set
@@ -104,9 +768,12 @@ public class Backend implements BackendInterface {
    */
   @Override
   public String getStatistics() {
-    // returns total nodes, total undirected edges, and total weight of the data set
-    return "Total Nodes: " + graph.getNodeCount() + " Total Edges: " + graph.getEdgeCount() / 2
-        + " Total Walking Time: " + totalEdgeWeight / 2;
+    // returns total nodes, total undirected edges, and total weight of the data set, all from the
+    // same version
+    Version version = current.get();
+    return "Total Nodes: " + version.graph.getNodeCount() + " Total Edges: "
+        + version.graph.getEdgeCount() / 2 + " Total Walking Time: "
+        + version.totalEdgeWeight / 2;
   }
 
   /**
@@ -119,20 +786,239 @@ public class Backend implements BackendInterface {
    */
   public ShortestPathInterface getShortestPath(String startBuilding, String destinationBuilding) {
 
-    // shortest path of the two buildings
-    List<String> shortestPath = graph.shortestPathData(startBuilding, destinationBuilding);
-    // total path cost between the two buildings
-    Double totalPathCost = graph.shortestPathCost(startBuilding, destinationBuilding);
-    List<Double> pathEdges = new LinkedList<Double>(); // list of edges along path
+    // the whole query is answered from the version that is current when it starts
+    Version version = current.get();
 
-    // loops through to find each edge cost in the path and adds it to pathEdges
-    for (int i = 0; i < shortestPath.size() - 1; i++) {
-      pathEdges.add(graph.getEdge(shortestPath.get(i), shortestPath.get(i + 1)));
+    // answer repeated routes from the cache, unless the graph changed since they were found. The
+    // search below sees the graph as of modCount or later, so its route is only cached if the
+    // cache still holds routes from modCount by then.
+    long modCount = freshRouteCache(version);
+    RouteCache routeCache = version.routeCache;
+    ShortestPathInterface cached = routeCache.get(startBuilding, destinationBuilding);
+    if (cached != null) {
+      return cached;
     }
+
+    // buildings in parts of the map that cannot reach each other are rejected without a search
+    DijkstraGraph<String, Double> graph = version.graph;
+    if (!graph.mightReach(startBuilding, destinationBuilding)
+        && graph.containsNode(startBuilding) && graph.containsNode(destinationBuilding)) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+
+    // path, edge costs along the path and total cost all come from a single search, or from a
+    // cached tree that already holds the paths from this start building
+    PathResult<String> result;
+    ShortestPathTree<String> tree = getCachedTree(version, startBuilding);
+    if (tree != null) {
+      result = tree.getResult(destinationBuilding);
+    } else {
+      result = version.graph.shortestPathResult(startBuilding, destinationBuilding);
+    }
+
     // returns new ShortestPath will all of the necessary info
-    return new ShortestPath(shortestPath, pathEdges, totalPathCost);
+    ShortestPathInterface shortestPath = toShortestPath(result);
+    cacheRoute(version, modCount, startBuilding, destinationBuilding, shortestPath);
+    return shortestPath;
+
+  }
+
+  /**
+   * Returns the shortest path for each of many pairs of buildings. Routes that are cached, or that
+   * start at a building whose paths are kept by cacheShortestPathTree(), are answered right away.
+   * The rest are grouped by start building and answered with one search per start building, which
+   * stops once all of that building's destinations are found, and the start buildings are searched
+   * in parallel. Every pair is answered from the version that is current when the call starts.
+   *
+   * @param startBuildings       are the starting buildings, one per route
+   * @param destinationBuildings are the destination buildings, in the same order as startBuildings
+   * @return the shortest path of each route, in the same order as startBuildings, or null for the
+   *         routes that have no path
+   * @throws IllegalArgumentException if startBuildings and destinationBuildings have different
+   *                                  sizes
+   * @throws NoSuchElementException   if any of the buildings is not in the graph
+   */
+  public List<ShortestPathInterface> getShortestPaths(List<String> startBuildings,
+      List<String> destinationBuildings) {
+    if (startBuildings.size() != destinationBuildings.size()) {
+      throw new IllegalArgumentException("every start building needs exactly one destination");
+    }
+    Version version = current.get();
+    long modCount = freshRouteCache(version);
+    RouteCache routeCache = version.routeCache;
+    List<ShortestPathInterface> shortestPaths = new ArrayList<>(startBuildings.size());
+
+    // routes that are neither cached nor in a cached tree, each searched for once however often it
+    // is asked for, and for each position in the result the search that answers it, or -1
+    int[] searchOf = new int[startBuildings.size()];
+    Map<List<String>, Integer> searches = new HashMap<>();
+    List<String> missedStarts = new ArrayList<>();
+    List<String> missedDestinations = new ArrayList<>();
+    for (int i = 0; i < startBuildings.size(); i++) {
+      String start = startBuildings.get(i);
+      String destination = destinationBuildings.get(i);
+      searchOf[i] = -1;
+      ShortestPathInterface shortestPath = routeCache.get(start, destination);
+      ShortestPathTree<String> tree = shortestPath == null ? getCachedTree(version, start) : null;
+      if (tree != null && version.graph.containsNode(destination)) {
+        shortestPath = tree.isReachable(destination) ? toShortestPath(tree.getResult(destination))
+            : null;
+        if (shortestPath != null) {
+          cacheRoute(version, modCount, start, destination, shortestPath);
+        }
+      } else if (shortestPath == null) {
+        Integer search = searches.get(Arrays.asList(start, destination));
+        if (search == null) {
+          search = missedStarts.size();
+          searches.put(Arrays.asList(start, destination), search);
+          missedStarts.add(start);
+          missedDestinations.add(destination);
+        }
+        searchOf[i] = search;
+      }
+      shortestPaths.add(shortestPath);
+    }
+
+    List<PathResult<String>> results =
+        version.graph.shortestPathResults(missedStarts, missedDestinations);
+    ShortestPathInterface[] found = new ShortestPathInterface[results.size()];
+    for (int k = 0; k < results.size(); k++) {
+      if (results.get(k) != null) {
+        found[k] = toShortestPath(results.get(k));
+        cacheRoute(version, modCount, missedStarts.get(k), missedDestinations.get(k), found[k]);
+      }
+    }
+    for (int i = 0; i < searchOf.length; i++) {
+      if (searchOf[i] != -1) {
+        shortestPaths.set(i, found[searchOf[i]]);
+      }
+    }
+    return shortestPaths;
+  }
 
+  /**
+   * Helper method that empties the route cache of a version if the version's graph changed since
+   * its routes were found
+   *
+   * @param version is the version whose route cache to check
+   * @return the graph modification count the cached routes were found at, which routes found
+   *         from now on have to be cached with
+   */
+  private long freshRouteCache(Version version) {
+    synchronized (version) {
+      long modCount = version.graph.getModCount();
+      if (version.routeCacheModCount != modCount) {
+        version.routeCache.clear();
+        version.routeCacheModCount = modCount;
+      }
+      return modCount;
+    }
   }
 
+  /**
+   * Helper method that caches a route found in a version's graph, unless the graph changed and the
+   * cache was emptied since the search started, in which case the route may already be out of
+   * date and must not be kept alongside routes found in the changed graph
+   *
+   * @param version     is the version the route was found in
+   * @param modCount    is the modification count freshRouteCache() returned before the search
+   * @param start       is the starting building of the route
+   * @param destination is the destination building of the route
+   * @param route       is the route to cache
+   */
+  private static void cacheRoute(Version version, long modCount, String start,
+      String destination, ShortestPathInterface route) {
+    synchronized (version) {
+      if (version.routeCacheModCount == modCount) {
+        version.routeCache.put(start, destination, route);
+      }
+    }
+  }
+
+  /**
+   * Helper method that wraps a path found by the graph as a ShortestPath
+   *
+   * @param result is the path, hop weights and total cost of the path
+   * @return the ShortestPath holding the same path
+   */
+  private static ShortestPathInterface toShortestPath(PathResult<String> result) {
+    return new ShortestPath(result.getPath(), result.getHopCosts(), result.getTotalCost());
+  }
+
+  /**
+   * getter method that returns the cache of recently requested routes in the current version,
+   * whose hit, miss and eviction counts show how well it is working
+   * 
+   * @return the route cache used by getShortestPath()
+   */
+  public RouteCache getRouteCache() {
+    return current.get().routeCache;
+  }
+
+  /**
+   * Returns a table of the walking times from each start building to each destination building,
+   * computed with one search per start building, in parallel.
+   *
+   * @param startBuildings       are the starting buildings, one row of the table each
+   * @param destinationBuildings are the destination buildings, one column of the table each
+   * @return table[i][j] is the walking time from startBuildings.get(i) to
+   *         destinationBuildings.get(j), or infinity when there is no path between them
+   * @throws NoSuchElementException if any of the buildings is not in the graph
+   */
+  public double[][] getWalkingTimeTable(List<String> startBuildings,
+      List<String> destinationBuildings) {
+    return current.get().graph.distanceMatrix(startBuildings, destinationBuildings);
+  }
+
+  /**
+   * Computes the shortest paths from a start building to every other building and keeps them, so
+   * that later calls to getShortestPath() from that building are answered without searching again.
+   * The kept paths are dropped as soon as the graph changes, and the paths from the least recently
+   * used start building are dropped when more start buildings are kept than the tree cache holds.
+   *
+   * @param startBuilding is the starting building of the paths to keep
+   * @throws NoSuchElementException if the start building is not in the graph
+   */
+  public void cacheShortestPathTree(String startBuilding) {
+    Version version = current.get();
+    synchronized (version) {
+      getCachedTree(version, startBuilding); // drops trees grown before the graph changed
+      if (!version.treeCache.containsKey(startBuilding)) {
+        version.treeCache.put(startBuilding, version.graph.shortestPathTree(startBuilding));
+      }
+    }
+  }
+
+  /**
+   * getter method that returns the start buildings that shortest path trees are cached for in the
+   * current version, from the least recently used to the most recently used
+   * 
+   * @return the start buildings of the cached trees
+   */
+  public List<String> getCachedTreeStarts() {
+    Version version = current.get();
+    synchronized (version) {
+      getCachedTree(version, null); // drops trees grown before the graph changed
+      return new ArrayList<>(version.treeCache.keySet());
+    }
+  }
+
+  /**
+   * Helper method that returns the cached tree for a start building, if there is one that matches
+   * the version's graph as it is now
+   *
+   * @param version       is the version to look in
+   * @param startBuilding is the starting building of the tree
+   * @return the cached tree, or null when there is none
+   */
+  private ShortestPathTree<String> getCachedTree(Version version, String startBuilding) {
+    synchronized (version) {
+      if (version.treeCacheModCount != version.graph.getModCount()) {
+        version.treeCache.clear();
+        version.treeCacheModCount = version.graph.getModCount();
+      }
+      return startBuilding == null ? null : version.treeCache.get(startBuilding);
+    }
+  }
 
 }
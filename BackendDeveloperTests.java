@@ -1,6 +1,9 @@
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -330,4 +333,662 @@ public class BackendDeveloperTests {
 
 
   }
+
+  /**
+   * Tests that a contraction hierarchy built from the campus graph unpacks its shortcuts into the
+   * same path, walking times and total cost that Dijkstra's algorithm finds
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test6() throws FileNotFoundException {
+    // create graph and backend objects
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend backend = new Backend(graph);
+    backend.readData("campus.dot");
+    ContractionHierarchy<String> hierarchy = new ContractionHierarchy<String>(graph);
+
+    // compare both long paths from the earlier tests
+    for (String[] pair : new String[][] {{"Memorial Union", "Bascom Hall"},
+        {"Agricultural Hall", "Grainger Hall"}}) {
+      ShortestPathInterface expected = backend.getShortestPath(pair[0], pair[1]);
+      PathResult<String> actual = hierarchy.shortestPathResult(pair[0], pair[1]);
+      Assertions.assertEquals(expected.getPath(), actual.getPath());
+      Assertions.assertEquals(expected.getWalkingTimes(), actual.getHopCosts());
+      Assertions.assertEquals(expected.totalPathCost(), actual.getTotalCost());
+      Assertions.assertEquals(expected.totalPathCost(),
+          hierarchy.shortestPathCost(pair[0], pair[1]), 1e-9);
+    }
+  }
+
+  /**
+   * Tests that A* guided by a landmark index finds the same walking time as Dijkstra's algorithm
+   * on the campus graph while expanding fewer buildings, and that a saved index can be loaded back
+   *
+   * @throws IOException if the index cannot be saved or loaded
+   */
+  @Test
+  public void test7() throws IOException {
+    // create graph and backend objects
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend backend = new Backend(graph);
+    backend.readData("campus.dot");
+    LandmarkIndex<String> index =
+        new LandmarkIndex<String>(graph, 8, LandmarkIndex.Selection.FARTHEST, 400);
+
+    PathResult<String> dijkstra =
+        graph.shortestPathResult("Agricultural Hall", "Grainger Hall", Heuristic.zero());
+    PathResult<String> alt = graph.shortestPathResult("Agricultural Hall", "Grainger Hall", index);
+    Assertions.assertEquals(dijkstra.getPath(), alt.getPath());
+    Assertions.assertEquals(dijkstra.getTotalCost(), alt.getTotalCost());
+    Assertions.assertTrue(alt.getExpandedCount() < dijkstra.getExpandedCount());
+
+    // save the index and load it back for the same graph
+    File file = File.createTempFile("landmarks", ".alt");
+    file.deleteOnExit();
+    index.save(file.getPath());
+    LandmarkIndex<String> loaded = LandmarkIndex.load(file.getPath(), graph);
+    Assertions.assertEquals(index.estimate("Memorial Union", "Bascom Hall"),
+        loaded.estimate("Memorial Union", "Bascom Hall"));
+  }
+
+  /**
+   * Tests that routes answered from a cached shortest path tree match the routes found by
+   * searching, for several destinations from the same start building
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test8() throws FileNotFoundException {
+    // create graph and backend objects
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend backend = new Backend(graph);
+    backend.readData("campus.dot");
+
+    String[] destinations = {"Bascom Hall", "Grainger Hall", "Computer Sciences and Statistics"};
+    List<ShortestPathInterface> searched = new ArrayList<ShortestPathInterface>();
+    for (String destination : destinations) {
+      searched.add(backend.getShortestPath("Memorial Union", destination));
+    }
+
+    // answer the same routes from a cached tree
+    backend.cacheShortestPathTree("Memorial Union");
+    for (int i = 0; i < destinations.length; i++) {
+      ShortestPathInterface cached = backend.getShortestPath("Memorial Union", destinations[i]);
+      Assertions.assertEquals(searched.get(i).getPath(), cached.getPath());
+      Assertions.assertEquals(searched.get(i).getWalkingTimes(), cached.getWalkingTimes());
+      Assertions.assertEquals(searched.get(i).totalPathCost(), cached.totalPathCost());
+    }
+
+    // the tree itself answers the same questions directly
+    ShortestPathTree<String> tree = graph.shortestPathTree("Memorial Union");
+    Assertions.assertEquals(searched.get(0).getPath(), tree.getPath("Bascom Hall"));
+    Assertions.assertEquals(searched.get(0).totalPathCost(), tree.totalPathCost("Bascom Hall"));
+
+    // with room for two trees, the least recently used one is dropped for a third
+    Backend small = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()),
+        Backend.DEFAULT_ROUTE_CACHE_CAPACITY, 2);
+    small.readData("campus.dot");
+    small.cacheShortestPathTree("Memorial Union");
+    small.cacheShortestPathTree("Bascom Hall");
+    small.getShortestPath("Memorial Union", "Grainger Hall"); // answered from its tree
+    small.cacheShortestPathTree("Union South");
+    Assertions.assertEquals(List.of("Memorial Union", "Union South"), small.getCachedTreeStarts());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()), 1, 0));
+  }
+
+  /**
+   * Tests that every entry of the walking time table matches the single route search between the
+   * same two buildings, including pairs with no path between them
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test9() throws FileNotFoundException {
+    // create graph and backend objects
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend backend = new Backend(graph);
+    backend.readData("campus.dot");
+
+    List<String> starts = List.of("Memorial Union", "Agricultural Hall", "Adams Residence Hall",
+        "7-Eleven", "Babcock Hall");
+    List<String> destinations = List.of("Bascom Hall", "Grainger Hall", "Birge Hall",
+        "Air Force ROTC", "1 South Park UW Health Clinic", "Bascom Hall", "Memorial Union");
+    double[][] table = backend.getWalkingTimeTable(starts, destinations);
+
+    Assertions.assertEquals(starts.size(), table.length);
+    for (int i = 0; i < starts.size(); i++) {
+      Assertions.assertEquals(destinations.size(), table[i].length);
+      for (int j = 0; j < destinations.size(); j++) {
+        double expected;
+        try {
+          expected = graph.shortestPathCost(starts.get(i), destinations.get(j));
+        } catch (java.util.NoSuchElementException e) {
+          expected = Double.POSITIVE_INFINITY;
+        }
+        Assertions.assertEquals(expected, table[i][j]);
+      }
+    }
+  }
+
+  /**
+   * Tests that repeated routes are answered from the route cache, that the least recently used
+   * route is evicted when the cache is full, and that the cache is emptied when the graph changes
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test10() throws FileNotFoundException {
+    // create graph and backend objects with room for two routes
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend backend = new Backend(graph, 2);
+    backend.readData("campus.dot");
+    RouteCache cache = backend.getRouteCache();
+
+    ShortestPathInterface first = backend.getShortestPath("Memorial Union", "Bascom Hall");
+    Assertions.assertSame(first, backend.getShortestPath("Memorial Union", "Bascom Hall"));
+    Assertions.assertEquals(1, cache.getHitCount());
+    Assertions.assertEquals(1, cache.getMissCount());
+    Assertions.assertThrows(UnsupportedOperationException.class,
+        () -> first.getPath().add("Grainger Hall"));
+
+    // the third route evicts the least recently used one
+    backend.getShortestPath("Agricultural Hall", "Grainger Hall");
+    backend.getShortestPath("Memorial Union", "Bascom Hall");
+    backend.getShortestPath("Memorial Union", "Grainger Hall");
+    Assertions.assertEquals(1, cache.getEvictionCount());
+    Assertions.assertEquals(2, cache.size());
+    Assertions.assertSame(first, backend.getShortestPath("Memorial Union", "Bascom Hall"));
+
+    // a new edge empties the cache, so the route is searched for again
+    graph.insertEdge("Memorial Union", "Bascom Hall", 1.0);
+    ShortestPathInterface changed = backend.getShortestPath("Memorial Union", "Bascom Hall");
+    Assertions.assertNotSame(first, changed);
+    Assertions.assertEquals(1.0, changed.totalPathCost());
+  }
+
+  /**
+   * Tests that loading walking times rounded to tenths of a second searches with a bucket queue,
+   * and that its routes stay within the stated precision of the exact walking times
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test11() throws FileNotFoundException {
+    // create one backend with exact walking times and one with rounded walking times
+    DijkstraGraph<String, Double> exactGraph =
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend exact = new Backend(exactGraph);
+    exact.readData("campus.dot");
+    DijkstraGraph<String, Double> roundedGraph =
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend rounded = new Backend(roundedGraph);
+    rounded.readData("campus.dot", 0.1);
+    Assertions.assertEquals(Frontier.Type.DIAL_BUCKET, roundedGraph.freeze().getFrontierType());
+
+    for (String[] pair : new String[][] {{"Memorial Union", "Bascom Hall"},
+        {"Agricultural Hall", "Grainger Hall"}, {"Memorial Union", "Grainger Hall"}}) {
+      ShortestPathInterface expected = exact.getShortestPath(pair[0], pair[1]);
+      ShortestPathInterface actual = rounded.getShortestPath(pair[0], pair[1]);
+      int hops = expected.getWalkingTimes().size() + actual.getWalkingTimes().size();
+      Assertions.assertEquals(expected.totalPathCost(), actual.totalPathCost(), hops * 0.05);
+    }
+
+    // exact walking times are not all multiples of a whole second
+    Assertions.assertThrows(IllegalArgumentException.class, () -> exactGraph.setBucketQueue(1.0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> rounded.readData("campus.dot", -1.0));
+  }
+
+  /**
+   * Tests that generated graphs are the same every time for the same seed, and that streaming a
+   * generated graph into the backend loads the same graph as writing it to a file first
+   *
+   * @throws IOException if the generated file cannot be written or read
+   */
+  @Test
+  public void test12() throws IOException {
+    for (DotGenerator.Shape shape : DotGenerator.Shape.values()) {
+      DotGenerator generator = new DotGenerator(shape, 1000, 7);
+      java.io.StringWriter first = new java.io.StringWriter();
+      java.io.StringWriter second = new java.io.StringWriter();
+      generator.write(first);
+      new DotGenerator(shape, 1000, 7).write(second);
+      Assertions.assertEquals(first.toString(), second.toString());
+      Assertions.assertTrue(first.toString().startsWith("graph "));
+
+      // load the graph from a file and from a stream
+      File file = File.createTempFile("generated", ".dot");
+      file.deleteOnExit();
+      generator.write(file.getPath());
+      Backend fromFile = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+      fromFile.readData(file.getPath());
+      Backend streamed = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+      streamed.readData(generator.reader(), 0.0);
+      Assertions.assertEquals(fromFile.getStatistics(), streamed.getStatistics());
+      Assertions.assertEquals(fromFile.getShortestPath("B0", "B999").getPath(),
+          streamed.getShortestPath("B0", "B999").getPath());
+    }
+
+    // every building of a grid has a path
+    Backend grid = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    grid.readData(new DotGenerator(DotGenerator.Shape.GRID, 1000, 7).reader(), 0.0);
+    Assertions.assertTrue(grid.getStatistics().startsWith("Total Nodes: 1000 "));
+  }
+
+  /**
+   * Tests that reading a file with the parallel parser builds the same graph as reading it line by
+   * line, including repeated paths, paths listed in both directions with different walking times,
+   * lines that are not paths, and carriage return line endings
+   *
+   * @throws IOException if the test file cannot be written or read
+   */
+  @Test
+  public void test13() throws IOException {
+    File file = File.createTempFile("parsed", ".dot");
+    file.deleteOnExit();
+    try (java.io.FileWriter writer = new java.io.FileWriter(file)) {
+      writer.write("graph campus {\n\t\"A\" -- \"B\" [seconds=1.5];\r\n"
+          + "\t\"A\" -- \"B\" [seconds=2.5];\r"
+          + "\t\"B\" -- \"A\" [seconds=3.25];\n not a path \"C\" -- \"D\" [seconds=4];\n"
+          + "\t\"C\" -- \"D\" [seconds=];\n\t\"D\" -- \"C\" [seconds=.5];\n}\n");
+    }
+    Backend parsed = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    parsed.readData(file.getPath());
+    Backend lineByLine = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    lineByLine.readData(new java.io.FileReader(file), 0.0);
+    Assertions.assertEquals(lineByLine.getStatistics(), parsed.getStatistics());
+    Assertions.assertEquals("Total Nodes: 4 Total Edges: 2 Total Walking Time: 5.875",
+        parsed.getStatistics());
+    for (String[] edge : new String[][] {{"A", "B"}, {"B", "A"}, {"C", "D"}, {"D", "C"}}) {
+      Assertions.assertEquals(lineByLine.graph.getEdge(edge[0], edge[1]),
+          parsed.graph.getEdge(edge[0], edge[1]));
+    }
+    Assertions.assertEquals(3.25, parsed.graph.getEdge("A", "B"));
+
+    // the campus graph loads the same way through both readers
+    Backend campus = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    campus.readData("campus.dot");
+    Backend campusLineByLine =
+        new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    campusLineByLine.readData(new java.io.FileReader("campus.dot"), 0.0);
+    Assertions.assertEquals(campusLineByLine.getStatistics(), campus.getStatistics());
+    Assertions.assertEquals(campusLineByLine.getShortestPath("Memorial Union", "Grainger Hall")
+        .getPath(), campus.getShortestPath("Memorial Union", "Grainger Hall").getPath());
+  }
+
+  /**
+   * Tests that a graph written to a binary snapshot is read back with the same statistics and
+   * paths, can still be changed afterwards, and that damaged snapshots are rejected
+   *
+   * @throws IOException if the snapshot cannot be written or read
+   */
+  @Test
+  public void test14() throws IOException {
+    Backend original = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    original.readData("campus.dot");
+    File file = File.createTempFile("campus", ".snapshot");
+    file.deleteOnExit();
+    original.writeSnapshot(file.getPath());
+
+    Backend loaded = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    loaded.readSnapshot(file.getPath());
+    Assertions.assertEquals(original.getStatistics(), loaded.getStatistics());
+    Assertions.assertTrue(loaded.graph.isFrozen());
+    String[][] pairs = {{"Memorial Union", "Grainger Hall"},
+        {"Union South", "Computer Sciences and Statistics"},
+        {"Atmospheric, Oceanic and Space Sciences", "Wendt Commons"}};
+    for (String[] pair : pairs) {
+      ShortestPathInterface expected = original.getShortestPath(pair[0], pair[1]);
+      ShortestPathInterface actual = loaded.getShortestPath(pair[0], pair[1]);
+      Assertions.assertEquals(expected.getPath(), actual.getPath());
+      Assertions.assertEquals(expected.getWalkingTimes(), actual.getWalkingTimes());
+      Assertions.assertEquals(expected.totalPathCost(), actual.totalPathCost());
+    }
+
+    // the loaded graph can be changed like one read from the .DOT file
+    Assertions.assertEquals(original.graph.getEdge("Memorial Union", "Science Hall"),
+        loaded.graph.getEdge("Memorial Union", "Science Hall"));
+    loaded.graph.insertEdge("Memorial Union", "Grainger Hall", 1.0);
+    Assertions.assertFalse(loaded.graph.isFrozen());
+    Assertions.assertEquals(1.0, loaded.getShortestPath("Memorial Union", "Grainger Hall")
+        .totalPathCost());
+
+    // loading the snapshot again replaces the changed graph instead of adding to it, but the first
+    // load still needs an empty graph
+    DijkstraGraph<String, Double> changed = loaded.graph;
+    loaded.readSnapshot(file.getPath());
+    Assertions.assertNotSame(changed, loaded.graph);
+    Assertions.assertEquals(original.getStatistics(), loaded.getStatistics());
+    Assertions.assertEquals(
+        original.getShortestPath("Memorial Union", "Grainger Hall").totalPathCost(),
+        loaded.getShortestPath("Memorial Union", "Grainger Hall").totalPathCost());
+    DijkstraGraph<String, Double> filled =
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    filled.insertNode("Memorial Union");
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new Backend(filled).readSnapshot(file.getPath()));
+
+    // a flipped byte or a file that is not a snapshot is rejected
+    byte[] bytes = java.nio.file.Files.readAllBytes(file.toPath());
+    bytes[bytes.length / 2] ^= 1;
+    java.nio.file.Files.write(file.toPath(), bytes);
+    Assertions.assertThrows(IOException.class, () -> new Backend(
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>())).readSnapshot(file.getPath()));
+    Assertions.assertThrows(IOException.class, () -> new Backend(
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>())).readSnapshot("campus.dot"));
+
+    // a snapshot that cannot be moved into place, here over a directory that is not empty, does
+    // not leave its temporary file behind
+    java.nio.file.Path directory = java.nio.file.Files.createTempDirectory("snapshot");
+    java.nio.file.Path blocker = java.nio.file.Files.createFile(directory.resolve("blocker"));
+    try {
+      Assertions.assertThrows(IOException.class,
+          () -> original.writeSnapshot(directory.toString()));
+      Assertions.assertFalse(java.nio.file.Files.exists(
+          directory.resolveSibling(directory.getFileName() + ".tmp")));
+    } finally {
+      java.nio.file.Files.delete(blocker);
+      java.nio.file.Files.delete(directory);
+    }
+  }
+
+  /**
+   * Tests that reading data again swaps in a new version of the graph while routes are being
+   * requested from other threads, and that every route and statistic comes from a whole version
+   * @throws Exception if the data cannot be read or a query thread fails
+   */
+  @Test
+  public void test15() throws Exception {
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    Backend backend = new Backend(graph);
+    Assertions.assertEquals(0, backend.getVersion());
+    backend.readData("campus.dot");
+    Assertions.assertSame(graph, backend.graph);
+    String statistics = backend.getStatistics();
+    ShortestPathInterface expected = backend.getShortestPath("Memorial Union", "Grainger Hall");
+
+    // queries on other threads see either version, never a partly loaded one
+    java.util.concurrent.ExecutorService pool =
+        java.util.concurrent.Executors.newFixedThreadPool(4);
+    try {
+      List<java.util.concurrent.Future<?>> queries = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        queries.add(pool.submit(() -> {
+          for (int i = 0; i < 300; i++) {
+            Assertions.assertEquals(statistics, backend.getStatistics());
+            ShortestPathInterface route =
+                backend.getShortestPath("Memorial Union", "Grainger Hall");
+            Assertions.assertEquals(expected.getPath(), route.getPath());
+            Assertions.assertEquals(expected.totalPathCost(), route.totalPathCost());
+          }
+        }));
+      }
+      for (int i = 0; i < 5; i++) {
+        backend.readData("campus.dot");
+      }
+      for (java.util.concurrent.Future<?> query : queries) {
+        query.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    // each read replaced the data set instead of adding to it, and left the first graph alone
+    Assertions.assertEquals(6, backend.getVersion());
+    Assertions.assertNotSame(graph, backend.graph);
+    Assertions.assertEquals(statistics, backend.getStatistics());
+    Assertions.assertEquals(160, graph.getNodeCount());
+    Assertions.assertEquals(expected.totalPathCost(),
+        graph.shortestPathCost("Memorial Union", "Grainger Hall"));
+
+    // a different data set replaces every building of the old one
+    backend.readData(new DotGenerator(DotGenerator.Shape.GRID, 100, 3).reader(), 0.0);
+    Assertions.assertEquals(100, backend.graph.getNodeCount());
+    Assertions.assertFalse(backend.graph.containsNode("Memorial Union"));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> backend.getShortestPath("Memorial Union", "Grainger Hall"));
+  }
+
+  /**
+   * Tests that reloading a changed .DOT file applies only the changed paths, gives the same routes
+   * and statistics as reading the changed file from scratch, and keeps the cached routes the
+   * changes cannot affect, and that watching the file reloads it when it is written
+   * @throws Exception if the files cannot be written or read
+   */
+  @Test
+  public void test16() throws Exception {
+    File file = File.createTempFile("campus", ".dot");
+    file.deleteOnExit();
+    List<String> lines = java.nio.file.Files.readAllLines(new File("campus.dot").toPath());
+    java.nio.file.Files.write(file.toPath(), lines);
+    Backend backend = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    backend.readData(file.getPath());
+    Assertions.assertEquals(0, backend.reloadChanges());
+    Assertions.assertEquals(1, backend.getVersion());
+    ShortestPathInterface longRoute = backend.getShortestPath("Memorial Union", "Grainger Hall");
+    ShortestPathInterface shortRoute = backend.getShortestPath("Memorial Union", "Science Hall");
+    ShortestPathInterface otherRoute =
+        backend.getShortestPath("Union South", "Computer Sciences and Statistics");
+    backend.cacheShortestPathTree("Memorial Union"); // repaired rather than dropped on reload
+
+    // close the path between the Law Building and Music Hall, which the long route uses, make
+    // another path slower, and add a new building that is too far away to shorten any route
+    List<String> changed = new ArrayList<>();
+    for (String line : lines) {
+      if (line.contains("\"Law Building\" -- \"Music Hall\"")
+          || line.contains("\"Music Hall\" -- \"Law Building\"")) {
+        continue;
+      }
+      changed.add(line.replace("\"Music Hall\" -- \"Science Hall\" [seconds=202.29999999999998]",
+          "\"Music Hall\" -- \"Science Hall\" [seconds=300.0]"));
+    }
+    changed.add(changed.size() - 1, "\t\"Union South\" -- \"Test Pavilion\" [seconds=5000.0];");
+    changed.add(changed.size() - 1, "\t\"Test Pavilion\" -- \"Union South\" [seconds=5000.0];");
+    java.nio.file.Files.write(file.toPath(), changed);
+    DijkstraGraph<String, Double> oldGraph = backend.graph;
+    Assertions.assertEquals(5, backend.reloadChanges());
+    Assertions.assertEquals(2, backend.getVersion());
+    // the changes go into a new graph, so queries still on the old version do not see them
+    Assertions.assertNotSame(oldGraph, backend.graph);
+    Assertions.assertTrue(oldGraph.containsEdge("Law Building", "Music Hall"));
+    Assertions.assertFalse(oldGraph.containsNode("Test Pavilion"));
+    Assertions.assertFalse(backend.graph.containsEdge("Law Building", "Music Hall"));
+    Assertions.assertFalse(backend.graph.isConcurrent());
+    Assertions.assertTrue(backend.graph.isFrozen());
+
+    Backend fresh = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    fresh.readData(file.getPath());
+    Assertions.assertEquals(fresh.getStatistics(), backend.getStatistics());
+    Assertions.assertSame(shortRoute, backend.getShortestPath("Memorial Union", "Science Hall"));
+    Assertions.assertSame(otherRoute,
+        backend.getShortestPath("Union South", "Computer Sciences and Statistics"));
+    ShortestPathInterface detour = backend.getShortestPath("Memorial Union", "Grainger Hall");
+    Assertions.assertNotSame(longRoute, detour);
+    Assertions.assertEquals(fresh.getShortestPath("Memorial Union", "Grainger Hall").getPath(),
+        detour.getPath());
+    Assertions.assertEquals(fresh.getShortestPath("Memorial Union", "Music Hall").getPath(),
+        backend.getShortestPath("Memorial Union", "Music Hall").getPath());
+    Assertions.assertEquals(5000.0,
+        backend.getShortestPath("Union South", "Test Pavilion").totalPathCost());
+
+    // writing the original file back is picked up by the watcher. Some file systems only poll for
+    // changes every few seconds, so the watcher is given up to a minute.
+    java.io.Closeable watching = backend.watch();
+    try {
+      java.nio.file.Files.write(file.toPath(), lines);
+      for (int i = 0; i < 1200 && backend.getVersion() == 2; i++) {
+        Thread.sleep(50);
+      }
+    } finally {
+      watching.close();
+    }
+    Assertions.assertEquals(3, backend.getVersion());
+    Assertions.assertEquals(longRoute.getPath(),
+        backend.getShortestPath("Memorial Union", "Grainger Hall").getPath());
+    Assertions.assertFalse(backend.graph.containsNode("Test Pavilion"));
+    Assertions.assertThrows(IllegalStateException.class, () -> new Backend(
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>())).reloadChanges());
+  }
+
+  /**
+   * Tests that a batch of routes, with repeated start buildings and pairs with no path between
+   * them, gives the same routes in the same order as asking for them one at a time, and fills the
+   * route cache
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test17() throws FileNotFoundException {
+    Backend backend = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    backend.readData("campus.dot");
+    Backend single = new Backend(new DijkstraGraph<String, Double>(new PlaceholderMap<>()));
+    single.readData("campus.dot");
+
+    List<String> buildings = List.of("Memorial Union", "Agricultural Hall", "Bascom Hall",
+        "7-Eleven", "Babcock Hall", "Grainger Hall", "Birge Hall", "Air Force ROTC",
+        "1 South Park UW Health Clinic");
+    java.util.Random random = new java.util.Random(25);
+    List<String> starts = new ArrayList<>();
+    List<String> destinations = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      starts.add(buildings.get(random.nextInt(buildings.size())));
+      destinations.add(buildings.get(random.nextInt(buildings.size())));
+    }
+    // paths from one start building are already kept in a tree
+    backend.cacheShortestPathTree("Bascom Hall");
+
+    List<ShortestPathInterface> routes = backend.getShortestPaths(starts, destinations);
+    Assertions.assertEquals(starts.size(), routes.size());
+    int missing = 0;
+    for (int i = 0; i < starts.size(); i++) {
+      ShortestPathInterface expected;
+      try {
+        expected = single.getShortestPath(starts.get(i), destinations.get(i));
+      } catch (java.util.NoSuchElementException e) {
+        expected = null;
+      }
+      if (expected == null) {
+        Assertions.assertNull(routes.get(i));
+        missing++;
+      } else {
+        Assertions.assertEquals(expected.getPath(), routes.get(i).getPath());
+        Assertions.assertEquals(expected.getWalkingTimes(), routes.get(i).getWalkingTimes());
+        Assertions.assertEquals(expected.totalPathCost(), routes.get(i).totalPathCost());
+        // found routes are cached for later single queries
+        Assertions.assertSame(routes.get(i),
+            backend.getShortestPath(starts.get(i), destinations.get(i)));
+      }
+    }
+    Assertions.assertTrue(missing > 0);
+
+    Assertions.assertEquals(List.of(), backend.getShortestPaths(List.of(), List.of()));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> backend.getShortestPaths(List.of("Memorial Union"), List.of()));
+    Assertions.assertThrows(java.util.NoSuchElementException.class,
+        () -> backend.getShortestPaths(List.of("Memorial Union"), List.of("Nowhere Hall")));
+  }
+
+  /**
+   * Tests that a route searched for while another thread changes a concurrent graph is not cached
+   * over the route found in the changed graph: one query is paused between its search and caching
+   * its route while the graph changes and another query caches the new route
+   *
+   * @throws Exception if the data cannot be read or the paused query fails
+   */
+  @Test
+  public void test18() throws Exception {
+    java.util.concurrent.atomic.AtomicBoolean pause =
+        new java.util.concurrent.atomic.AtomicBoolean(false);
+    java.util.concurrent.Semaphore searched = new java.util.concurrent.Semaphore(0);
+    java.util.concurrent.Semaphore resume = new java.util.concurrent.Semaphore(0);
+    DijkstraGraph<String, Double> graph =
+        new DijkstraGraph<String, Double>(new PlaceholderMap<>()) {
+          @Override
+          public PathResult<String> shortestPathResult(String start, String end) {
+            PathResult<String> result = super.shortestPathResult(start, end);
+            if (pause.getAndSet(false)) {
+              searched.release();
+              try {
+                resume.acquire();
+              } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+              }
+            }
+            return result;
+          }
+        };
+    Backend backend = new Backend(graph);
+    backend.readData("campus.dot");
+    graph.setConcurrent(true);
+    double closedCost = graph.shortestPathCost("Memorial Union", "Grainger Hall");
+
+    java.util.concurrent.ExecutorService pool =
+        java.util.concurrent.Executors.newSingleThreadExecutor();
+    try {
+      for (int round = 0; round < 4; round++) {
+        boolean open = round % 2 == 0;
+        // the paused query searches for the route before the change
+        backend.getRouteCache().clear();
+        pause.set(true);
+        java.util.concurrent.Future<ShortestPathInterface> paused =
+            pool.submit(() -> backend.getShortestPath("Memorial Union", "Grainger Hall"));
+        Assertions.assertTrue(searched.tryAcquire(10, java.util.concurrent.TimeUnit.SECONDS));
+        if (open) {
+          graph.insertEdge("Memorial Union", "Grainger Hall", 1.0);
+        } else {
+          graph.removeEdge("Memorial Union", "Grainger Hall");
+        }
+        double expected = open ? 1.0 : closedCost;
+        Assertions.assertEquals(expected,
+            backend.getShortestPath("Memorial Union", "Grainger Hall").totalPathCost());
+        resume.release();
+        Assertions.assertEquals(open ? closedCost : 1.0, paused.get().totalPathCost());
+        // the route found before the change was not cached
+        Assertions.assertEquals(expected,
+            backend.getShortestPath("Memorial Union", "Grainger Hall").totalPathCost());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Tests that the graph of each new version keeps the frontier, edge index and concurrency mode
+   * of the graph it replaces, except for a bucket queue chosen for rounded walking times
+   *
+   * @throws FileNotFoundException if file path is not found
+   */
+  @Test
+  public void test19() throws FileNotFoundException {
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<String, Double>(new PlaceholderMap<>());
+    graph.setFrontier(Frontier.Type.LAZY_BINARY, 8);
+    graph.setEdgeIndex(true);
+    graph.setConcurrent(true);
+    Backend backend = new Backend(graph);
+    backend.readData("campus.dot");
+    backend.readData("campus.dot");
+    Assertions.assertNotSame(graph, backend.graph);
+    Assertions.assertEquals(Frontier.Type.LAZY_BINARY, backend.graph.freeze().getFrontierType());
+    Assertions.assertEquals(8, backend.graph.getFrontierArity());
+    Assertions.assertTrue(backend.graph.hasEdgeIndex());
+    Assertions.assertTrue(backend.graph.isConcurrent());
+
+    // a bucket queue chosen by the caller is kept
+    String whole = "graph g { A -- B [seconds=2.0]; B -- C [seconds=3.0]; }";
+    backend.readData(new java.io.StringReader(whole), 0.0);
+    backend.graph.setBucketQueue(0.5);
+    backend.readData(new java.io.StringReader(whole), 0.0);
+    Assertions.assertEquals(Frontier.Type.DIAL_BUCKET, backend.graph.freeze().getFrontierType());
+    Assertions.assertEquals(0.5, backend.graph.getBucketWidth());
+
+    // one chosen for rounded walking times is not, since exact walking times might not fit it
+    backend.readData("campus.dot", 0.1);
+    Assertions.assertEquals(0.1, backend.graph.getBucketWidth());
+    backend.readData("campus.dot");
+    Assertions.assertEquals(0.0, backend.graph.getBucketWidth());
+    Assertions.assertEquals(FrozenGraph.DEFAULT_FRONTIER_TYPE,
+        backend.graph.freeze().getFrontierType());
+  }
 }
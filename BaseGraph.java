@@ -1,3 +1,4 @@
+import java.util.ArrayList;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
@@ -8,9 +9,11 @@ import java.util.NoSuchElementException;
  */
 public class BaseGraph<NodeType, EdgeType extends Number> {
 
-    // Each node contains unique data along with two lists of directed edges
+    // Each node contains unique data along with two lists of directed edges,
+    // and an int id that stays the same for as long as the node is in the graph
     protected class Node {
         public NodeType data;
+        public int id;
         public List<Edge> edgesLeaving = new LinkedList<>();
         public List<Edge> edgesEntering = new LinkedList<>();
 
@@ -22,6 +25,9 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
     // Nodes can be retrieved from this map by their unique data
     protected MapADT<NodeType, Node> nodes = null;
 
+    // Nodes can also be retrieved by their id, removed nodes leave a null slot
+    protected ArrayList<Node> nodesById = new ArrayList<>();
+
     // Each edge contains data/weight, and two nodes that it connects
     protected class Edge {
         public EdgeType data; // the weight or cost of this edge
@@ -38,6 +44,13 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
     protected int edgeCount = 0;
     // Edges can be retrieved through the edge lists in either connected node
 
+    // Incremented by every call that changes the nodes, edges or edge weights
+    protected long modCount = 0;
+
+    // Optional index of every edge by the ids of its predecessor and successor,
+    // so finding an edge does not scan a long edge list; null when turned off
+    protected LongObjectMap<Edge> edgeIndex = null;
+
     /**
      * Constructor for BaseGraph that provides the map the graph uses.
      * 
@@ -59,10 +72,55 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
     public boolean insertNode(NodeType data) {
         if (nodes.containsKey(data))
             return false; // throws NPE when data's null
-        nodes.put(data, new Node(data));
+        Node newNode = new Node(data);
+        newNode.id = nodesById.size();
+        nodesById.add(newNode);
+        nodes.put(data, newNode);
+        modCount++;
         return true;
     }
 
+    /**
+     * Insert many new nodes and the edges between them at once, without
+     * looking up any node or edge, which is much faster than inserting them
+     * one at a time when loading a large graph.
+     *
+     * @param data    the data items of the new nodes, none of which may
+     *                already be in the graph, and no two of which may be equal
+     * @param preds   for each new edge, the index in data of its predecessor
+     * @param succs   for each new edge, the index in data of its successor
+     * @param weights for each new edge, its non-negative weight. No two new
+     *                edges may have the same predecessor and successor
+     * @throws IllegalArgumentException if a data item is already in the graph,
+     *                                  in which case the graph is unchanged
+     * @throws NullPointerException     if a data item is null
+     */
+    public void insertAll(List<NodeType> data, int[] preds, int[] succs,
+            List<EdgeType> weights) {
+        for (NodeType item : data)
+            if (nodes.containsKey(item)) // throws NPE when item's null
+                throw new IllegalArgumentException(item + " is already in the graph");
+        ArrayList<Node> newNodes = new ArrayList<>(data.size());
+        for (NodeType item : data) {
+            Node newNode = new Node(item);
+            newNode.id = nodesById.size();
+            nodesById.add(newNode);
+            nodes.put(item, newNode);
+            newNodes.add(newNode);
+        }
+        for (int i = 0; i < preds.length; i++) {
+            Node predNode = newNodes.get(preds[i]);
+            Node succNode = newNodes.get(succs[i]);
+            Edge newEdge = new Edge(weights.get(i), predNode, succNode);
+            predNode.edgesLeaving.add(newEdge);
+            succNode.edgesEntering.add(newEdge);
+            if (edgeIndex != null)
+                edgeIndex.put(edgeKey(predNode, succNode), newEdge);
+        }
+        this.edgeCount += preds.length;
+        modCount++;
+    }
+
     /**
      * Remove a node from the graph.
      * And also remove all edges adjacent to that node.
@@ -77,13 +135,26 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
         if (!nodes.containsKey(data))
             return false; // throws NPE when data==null
         Node oldNode = nodes.remove(data);
+        nodesById.set(oldNode.id, null);
+        modCount++;
         // remove all edges entering neighboring nodes from this one
-        for (Edge edge : oldNode.edgesLeaving)
+        for (Edge edge : oldNode.edgesLeaving) {
             edge.successor.edgesEntering.remove(edge);
-            System.out.println("x");
-        // remove all edges leaving neighboring nodes toward this one
-        for (Edge edge : oldNode.edgesEntering)
+            this.edgeCount--;
+        }
+        // remove all edges leaving neighboring nodes toward this one, where
+        // an edge from the node to itself was already counted above
+        for (Edge edge : oldNode.edgesEntering) {
             edge.predecessor.edgesLeaving.remove(edge);
+            if (edge.predecessor != oldNode)
+                this.edgeCount--;
+        }
+        if (edgeIndex != null) {
+            for (Edge edge : oldNode.edgesLeaving)
+                edgeIndex.remove(edgeKey(edge.predecessor, edge.successor));
+            for (Edge edge : oldNode.edgesEntering)
+                edgeIndex.remove(edgeKey(edge.predecessor, edge.successor));
+        }
         return true;
     }
 
@@ -124,17 +195,21 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
         Node succNode = nodes.get(succ);
         if (predNode == null || succNode == null)
             return false;
-        try {
+        Edge existingEdge = findEdge(predNode, succNode);
+        if (existingEdge != null) {
             // when an edge alread exists within the graph, update its weight
-            Edge existingEdge = getEdgeHelper(pred, succ);
             existingEdge.data = weight;
-        } catch (NoSuchElementException e) {
+            modCount++;
+        } else {
             // otherwise create a new edges
             Edge newEdge = new Edge(weight, predNode, succNode);
             this.edgeCount++;
             // and insert it into each of its adjacent nodes' respective lists
             predNode.edgesLeaving.add(newEdge);
             succNode.edgesEntering.add(newEdge);
+            if (edgeIndex != null)
+                edgeIndex.put(edgeKey(predNode, succNode), newEdge);
+            modCount++;
         }
         return true;
     }
@@ -148,19 +223,18 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
      *         false if such an edge is not found in the graph
      */
     public boolean removeEdge(NodeType pred, NodeType succ) {
-        try {
-            // when an edge exists
-            Edge oldEdge = getEdgeHelper(pred, succ);
-            // remove it from the edge lists of each adjacent node
-            oldEdge.predecessor.edgesLeaving.remove(oldEdge);
-            oldEdge.successor.edgesEntering.remove(oldEdge);
-            // and decrement the edge count before removing
-            this.edgeCount--;
-            return true;
-        } catch (NoSuchElementException e) {
-            // when no such edge exists, return false instead
-            return false;
-        }
+        Edge oldEdge = findEdge(pred, succ);
+        if (oldEdge == null)
+            return false; // when no such edge exists, return false instead
+        // remove it from the edge lists of each adjacent node
+        oldEdge.predecessor.edgesLeaving.remove(oldEdge);
+        oldEdge.successor.edgesEntering.remove(oldEdge);
+        if (edgeIndex != null)
+            edgeIndex.remove(edgeKey(oldEdge.predecessor, oldEdge.successor));
+        // and decrement the edge count before removing
+        this.edgeCount--;
+        modCount++;
+        return true;
     }
 
     /**
@@ -171,12 +245,7 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
      * @return true if the edge is found in the graph, or false other
      */
     public boolean containsEdge(NodeType pred, NodeType succ) {
-        try {
-            getEdgeHelper(pred, succ);
-            return true;
-        } catch (NoSuchElementException e) {
-            return false;
-        }
+        return findEdge(pred, succ) != null;
     }
 
     /**
@@ -193,15 +262,88 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
     }
 
     protected Edge getEdgeHelper(NodeType pred, NodeType succ) {
-        Node predNode = nodes.get(pred);
-        // search for edge through the predecessor's list of leaving edges
+        Edge edge = findEdge(pred, succ);
+        // when no such edge can be found, throw NSE
+        if (edge == null)
+            throw new NoSuchElementException("No edge from " + pred.toString() + " to " +
+                    succ.toString());
+        return edge;
+    }
+
+    /**
+     * Find the edge between two nodes without throwing an exception when
+     * there is none, which is how the graph itself checks for edges.
+     * 
+     * @param pred the data item contained in the source node for the edge
+     * @param succ the data item contained in the target node for the edge
+     * @return the edge between those nodes, or null if either node or the
+     *         edge between them are not found within this graph
+     * @throws NullPointerException if pred or succ is null
+     */
+    protected Edge findEdge(NodeType pred, NodeType succ) {
+        Node predNode = nodes.getOrDefault(pred, null);
+        Node succNode = nodes.getOrDefault(succ, null);
+        if (predNode == null || succNode == null)
+            return null;
+        return findEdge(predNode, succNode);
+    }
+
+    /**
+     * Find the edge between two nodes of this graph, through the edge index
+     * when the graph has one, or else by scanning the predecessor's leaving
+     * edges.
+     * 
+     * @param predNode the source node for the edge
+     * @param succNode the target node for the edge
+     * @return the edge between those nodes, or null if there is none
+     */
+    protected Edge findEdge(Node predNode, Node succNode) {
+        if (edgeIndex != null)
+            return edgeIndex.get(edgeKey(predNode, succNode));
         for (Edge edge : predNode.edgesLeaving)
-            // compare succ to the data in each leaving edge's successor
-            if (edge.successor.data.equals(succ))
+            // compare succ's id to the id of each leaving edge's successor, which is
+            // cheaper than comparing their data
+            if (edge.successor.id == succNode.id)
                 return edge;
-        // when no such edge can be found, throw NSE
-        throw new NoSuchElementException("No edge from " + pred.toString() + " to " +
-                succ.toString());
+        return null;
+    }
+
+    /**
+     * Turn the edge index on or off. With the index on, finding, inserting
+     * and removing an edge by its nodes takes constant expected time however
+     * many edges those nodes have, at the cost of a hash table entry for
+     * every edge. Without it, those calls scan the predecessor's leaving
+     * edges, which is fine for graphs where every node has few edges.
+     * 
+     * @param enabled true to index every edge, false to drop the index
+     */
+    public void setEdgeIndex(boolean enabled) {
+        if (!enabled) {
+            edgeIndex = null;
+        } else if (edgeIndex == null) {
+            edgeIndex = new LongObjectMap<>(edgeCount);
+            for (Node node : nodesById)
+                if (node != null)
+                    for (Edge edge : node.edgesLeaving)
+                        edgeIndex.put(edgeKey(node, edge.successor), edge);
+        }
+    }
+
+    /**
+     * Check whether the graph keeps an edge index.
+     * 
+     * @return true if the edge index is on, or false otherwise
+     */
+    public boolean hasEdgeIndex() {
+        return edgeIndex != null;
+    }
+
+    /**
+     * Return the key of the edge between two nodes in the edge index, which
+     * packs the ids of both nodes into one long.
+     */
+    protected long edgeKey(Node predNode, Node succNode) {
+        return (long) predNode.id << 32 | (succNode.id & 0xFFFFFFFFL);
     }
 
     /**
@@ -213,5 +355,15 @@ public class BaseGraph<NodeType, EdgeType extends Number> {
         return this.edgeCount;
     }
 
+    /**
+     * Return the number of changes made to this graph so far. Any two calls
+     * that return the same value were made against an unchanged graph.
+     * 
+     * @return the number of node, edge and edge weight changes made so far
+     */
+    public long getModCount() {
+        return this.modCount;
+    }
+
 }
 
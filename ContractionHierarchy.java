@@ -0,0 +1,660 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class preprocesses a DijkstraGraph into a Contraction Hierarchy and answers shortest path
+ * queries against it. Preprocessing contracts the nodes one at a time in order of importance: when
+ * a node is contracted, a shortcut edge is added between each pair of its remaining neighbors whose
+ * only shortest connection ran through it. Every node is then given a rank equal to its position in
+ * that order. A query searches upward in rank from the start node and, over reversed edges, upward
+ * from the end node; the two searches always meet at the highest ranked node of the shortest path,
+ * so each only explores a small part of the graph. Shortcuts remember the node they bypass, which is
+ * how the paths found are unpacked back into the original sequence of nodes.
+ *
+ * The hierarchy is a snapshot: changes made to the graph afterwards are not seen by it.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public class ContractionHierarchy<NodeType> {
+
+  // witness searches give up after settling this many nodes, and the shortcut is kept
+  private static final int WITNESS_SETTLE_LIMIT = 500;
+
+  // snapshot of the graph the hierarchy was built from, used to translate node data to ids
+  private final FrozenGraph<NodeType> graph;
+  // position of each node id within the contraction order
+  private final int[] rank;
+
+  // edges u -> w with rank[u] < rank[w], stored with u's leaving edges
+  private final int[] upOffsets;
+  private final int[] upTargets;
+  private final double[] upWeights;
+  private final int[] upMiddles;
+
+  // edges u -> w with rank[u] > rank[w], stored reversed with w's entering edges
+  private final int[] downOffsets;
+  private final int[] downSources;
+  private final double[] downWeights;
+  private final int[] downMiddles;
+
+  private final int shortcutCount;
+  private final long preprocessingNanos;
+
+  // each thread reuses its own query arrays, which are reset by only visiting what was touched
+  private final ThreadLocal<Query> queries;
+
+  /**
+   * Constructor that builds the hierarchy for the current state of a graph.
+   *
+   * @param graph the graph to preprocess
+   */
+  public ContractionHierarchy(DijkstraGraph<NodeType, ?> graph) {
+    long startTime = System.nanoTime();
+    this.graph = graph.freeze();
+    int n = this.graph.nodeData.length;
+    this.rank = new int[n];
+
+    Contraction contraction = new Contraction(this.graph);
+    contraction.contractAll(rank);
+
+    // copy the edges recorded during contraction into the upward and reversed downward arrays
+    upOffsets = new int[n + 1];
+    downOffsets = new int[n + 1];
+    for (int u = 0; u < n; u++) {
+      upOffsets[u + 1] = upOffsets[u] + contraction.up[u].size;
+      downOffsets[u + 1] = downOffsets[u] + contraction.down[u].size;
+    }
+    upTargets = new int[upOffsets[n]];
+    upWeights = new double[upOffsets[n]];
+    upMiddles = new int[upOffsets[n]];
+    downSources = new int[downOffsets[n]];
+    downWeights = new double[downOffsets[n]];
+    downMiddles = new int[downOffsets[n]];
+    int shortcuts = 0;
+    for (int u = 0; u < n; u++) {
+      EdgeList up = contraction.up[u];
+      System.arraycopy(up.nodes, 0, upTargets, upOffsets[u], up.size);
+      System.arraycopy(up.weights, 0, upWeights, upOffsets[u], up.size);
+      System.arraycopy(up.middles, 0, upMiddles, upOffsets[u], up.size);
+      EdgeList down = contraction.down[u];
+      System.arraycopy(down.nodes, 0, downSources, downOffsets[u], down.size);
+      System.arraycopy(down.weights, 0, downWeights, downOffsets[u], down.size);
+      System.arraycopy(down.middles, 0, downMiddles, downOffsets[u], down.size);
+      for (int i = 0; i < up.size; i++) {
+        shortcuts += up.middles[i] == -1 ? 0 : 1;
+      }
+      for (int i = 0; i < down.size; i++) {
+        shortcuts += down.middles[i] == -1 ? 0 : 1;
+      }
+    }
+
+    this.shortcutCount = shortcuts;
+    this.queries = ThreadLocal.withInitial(() -> new Query(n));
+    this.preprocessingNanos = System.nanoTime() - startTime;
+  }
+
+  /**
+   * Returns the number of shortcut edges that preprocessing added to the graph.
+   *
+   * @return the number of shortcut edges in the hierarchy
+   */
+  public int getShortcutCount() {
+    return shortcutCount;
+  }
+
+  /**
+   * Returns how long preprocessing took.
+   *
+   * @return the preprocessing time in milliseconds
+   */
+  public double getPreprocessingMillis() {
+    return preprocessingNanos / 1_000_000.0;
+  }
+
+  /**
+   * Returns the list of data values from nodes along the shortest path from the node with the
+   * provided start value through the node with the provided end value.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return list of data item from node along this shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    return shortestPathResult(start, end).getPath();
+  }
+
+  /**
+   * Returns the cost of the shortest path from the node containing the start data to the node
+   * containing the end data.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the cost of the shortest path between these nodes
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public double shortestPathCost(NodeType start, NodeType end) {
+    Query query = queries.get();
+    try {
+      return query.search(graph.idOf(start), graph.idOf(end));
+    } finally {
+      query.reset();
+    }
+  }
+
+  /**
+   * Returns the node data, the weight of each hop, and the total cost of the shortest path from
+   * the node containing the start data to the node containing the end data. Shortcuts on the path
+   * are unpacked, so the path lists the same nodes a search of the original graph would.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the path, hop weights and total cost of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public PathResult<NodeType> shortestPathResult(NodeType start, NodeType end) {
+    Query query = queries.get();
+    try {
+      query.search(graph.idOf(start), graph.idOf(end));
+      return query.unpack();
+    } finally {
+      query.reset();
+    }
+  }
+
+  /**
+   * A growable list of the edges leaving (or entering) one node while the graph is contracted,
+   * holding at most one edge per neighbor: the cheapest one found so far.
+   */
+  private static class EdgeList {
+    int[] nodes = new int[4];
+    double[] weights = new double[4];
+    int[] middles = new int[4];
+    int size = 0;
+
+    /**
+     * Adds an edge to a neighbor, or lowers the weight of the existing edge to that neighbor
+     *
+     * @param node   the neighbor's id
+     * @param weight the weight of the edge
+     * @param middle the node bypassed by the edge, or -1 for an edge of the original graph
+     */
+    void relax(int node, double weight, int middle) {
+      for (int i = 0; i < size; i++) {
+        if (nodes[i] == node) {
+          if (weight < weights[i]) {
+            weights[i] = weight;
+            middles[i] = middle;
+          }
+          return;
+        }
+      }
+      if (size == nodes.length) {
+        nodes = Arrays.copyOf(nodes, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+        middles = Arrays.copyOf(middles, size * 2);
+      }
+      nodes[size] = node;
+      weights[size] = weight;
+      middles[size] = middle;
+      size++;
+    }
+
+    /**
+     * Removes the edge to a neighbor, if there is one, by moving the last edge into its place
+     *
+     * @param node the neighbor's id
+     */
+    void remove(int node) {
+      for (int i = 0; i < size; i++) {
+        if (nodes[i] == node) {
+          size--;
+          nodes[i] = nodes[size];
+          weights[i] = weights[size];
+          middles[i] = middles[size];
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * The state of the graph while its nodes are being contracted. The out and in lists only hold
+   * edges between nodes that are not contracted yet. When a node is contracted, its remaining edges
+   * are moved to its up list (edges leaving it) and its down list (edges entering it), since every
+   * node it still connects to will be contracted later and so ranks higher.
+   */
+  private static class Contraction {
+    final EdgeList[] out;
+    final EdgeList[] in;
+    final EdgeList[] up;
+    final EdgeList[] down;
+    final boolean[] contracted;
+    final int[] contractedNeighbors;
+
+    // witness search state, reset after each search through the touched list
+    final double[] witnessDist;
+    final int[] touched;
+    int touchedCount = 0;
+    final LazyBinaryHeap witnessQueue;
+
+    Contraction(FrozenGraph<?> graph) {
+      int n = graph.nodeData.length;
+      out = new EdgeList[n];
+      in = new EdgeList[n];
+      up = new EdgeList[n];
+      down = new EdgeList[n];
+      for (int u = 0; u < n; u++) {
+        out[u] = new EdgeList();
+        in[u] = new EdgeList();
+      }
+      for (int u = 0; u < n; u++) {
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+          int w = graph.targets[e];
+          if (w != u) { // self loops are never part of a shortest path
+            out[u].relax(w, graph.weights[e], -1);
+            in[w].relax(u, graph.weights[e], -1);
+          }
+        }
+      }
+      contracted = new boolean[n];
+      contractedNeighbors = new int[n];
+      witnessDist = new double[n];
+      Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+      touched = new int[n];
+      witnessQueue = new LazyBinaryHeap(16);
+    }
+
+    /**
+     * Contracts every node, cheapest first, and records the order in rank. Priorities are updated
+     * lazily: a node whose priority has grown since it was queued is queued again instead.
+     *
+     * @param rank array that receives each node's position in the contraction order
+     */
+    void contractAll(int[] rank) {
+      int n = out.length;
+      double[] priority = new double[n];
+      LazyBinaryHeap queue = new LazyBinaryHeap(n);
+      for (int v = 0; v < n; v++) {
+        priority[v] = priority(v);
+        queue.push(v, priority[v]);
+      }
+      int nextRank = 0;
+      while (!queue.isEmpty()) {
+        double key = queue.peekKey();
+        int v = queue.poll();
+        if (contracted[v] || key != priority[v]) {
+          continue;
+        }
+        double updated = priority(v);
+        if (!queue.isEmpty() && updated > queue.peekKey()) {
+          priority[v] = updated;
+          queue.push(v, updated);
+          continue;
+        }
+        contract(v, true);
+        contracted[v] = true;
+        rank[v] = nextRank++;
+
+        // move v's edges out of the remaining graph and into its up and down lists
+        up[v] = out[v];
+        down[v] = in[v];
+        for (int i = 0; i < up[v].size; i++) {
+          in[up[v].nodes[i]].remove(v);
+        }
+        for (int i = 0; i < down[v].size; i++) {
+          out[down[v].nodes[i]].remove(v);
+        }
+        out[v] = null;
+        in[v] = null;
+
+        // contracting v changes the priority of its remaining neighbors
+        for (EdgeList edges : new EdgeList[] {up[v], down[v]}) {
+          for (int i = 0; i < edges.size; i++) {
+            int neighbor = edges.nodes[i];
+            contractedNeighbors[neighbor]++;
+            priority[neighbor] = priority(neighbor);
+            queue.push(neighbor, priority[neighbor]);
+          }
+        }
+      }
+    }
+
+    /**
+     * Computes the priority of a node: the number of shortcuts contracting it would add, minus the
+     * number of edges it would remove, plus the number of its neighbors already contracted, which
+     * spreads contraction evenly across the graph.
+     *
+     * @param v the id of the node
+     * @return the priority of v, lower priorities are contracted first
+     */
+    double priority(int v) {
+      int removed = out[v].size + in[v].size;
+      return contract(v, false) - removed + contractedNeighbors[v];
+    }
+
+    /**
+     * Finds the shortcuts needed to contract a node: for each remaining in-neighbor u and
+     * out-neighbor w of v, a shortcut u -> w is needed unless a witness search finds a path from
+     * u to w that avoids v and is no more expensive than going through v.
+     *
+     * @param v     the id of the node to contract
+     * @param apply true to add the shortcuts to the graph, false to only count them
+     * @return the number of shortcuts needed
+     */
+    int contract(int v, boolean apply) {
+      int shortcuts = 0;
+      for (int i = 0; i < in[v].size; i++) {
+        int u = in[v].nodes[i];
+        double toV = in[v].weights[i];
+        double maxCost = -1;
+        for (int j = 0; j < out[v].size; j++) {
+          int w = out[v].nodes[j];
+          if (w != u) {
+            maxCost = Math.max(maxCost, toV + out[v].weights[j]);
+          }
+        }
+        if (maxCost < 0) {
+          continue; // no out-neighbors to connect u to
+        }
+        witnessSearch(u, v, maxCost);
+        for (int j = 0; j < out[v].size; j++) {
+          int w = out[v].nodes[j];
+          double throughV = toV + out[v].weights[j];
+          if (w != u && witnessDist[w] > throughV) {
+            shortcuts++;
+            if (apply) {
+              out[u].relax(w, throughV, v);
+              in[w].relax(u, throughV, v);
+            }
+          }
+        }
+        resetWitness();
+      }
+      return shortcuts;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from source over the remaining nodes other than excluded, until
+     * every node within maxCost is settled or the settle limit is reached.
+     *
+     * @param source   the id of the node to search from
+     * @param excluded the id of the node being contracted
+     * @param maxCost  the cost beyond which paths do not need to be found
+     */
+    void witnessSearch(int source, int excluded, double maxCost) {
+      witnessQueue.clear();
+      witnessDist[source] = 0.0;
+      touched[touchedCount++] = source;
+      witnessQueue.push(source, 0.0);
+      int settled = 0;
+      while (!witnessQueue.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+        double cost = witnessQueue.peekKey();
+        int current = witnessQueue.poll();
+        if (cost > witnessDist[current]) {
+          continue;
+        }
+        settled++;
+        EdgeList edges = out[current];
+        for (int i = 0; i < edges.size; i++) {
+          int next = edges.nodes[i];
+          if (next == excluded) {
+            continue;
+          }
+          double pathCost = cost + edges.weights[i];
+          if (pathCost <= maxCost && pathCost < witnessDist[next]) {
+            if (witnessDist[next] == Double.POSITIVE_INFINITY) {
+              touched[touchedCount++] = next;
+            }
+            witnessDist[next] = pathCost;
+            witnessQueue.push(next, pathCost);
+          }
+        }
+      }
+    }
+
+    /**
+     * Puts every distance set by the last witness search back to infinity.
+     */
+    void resetWitness() {
+      for (int i = 0; i < touchedCount; i++) {
+        witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+      }
+      touchedCount = 0;
+    }
+  }
+
+  /**
+   * The arrays used by one thread's queries: an upward search from the start node, and an upward
+   * search over reversed edges from the end node.
+   */
+  private class Query {
+    final double[] forwardDist;
+    final double[] backwardDist;
+    // the node each search reached a node from, and the index of the edge it used
+    final int[] forwardParent;
+    final int[] forwardEdge;
+    final int[] backwardParent;
+    final int[] backwardEdge;
+    final LazyBinaryHeap forwardQueue;
+    final LazyBinaryHeap backwardQueue;
+    int[] touched;
+    int touchedCount = 0;
+    int start;
+    int meet;
+
+    Query(int n) {
+      forwardDist = new double[n];
+      backwardDist = new double[n];
+      Arrays.fill(forwardDist, Double.POSITIVE_INFINITY);
+      Arrays.fill(backwardDist, Double.POSITIVE_INFINITY);
+      forwardParent = new int[n];
+      forwardEdge = new int[n];
+      backwardParent = new int[n];
+      backwardEdge = new int[n];
+      forwardQueue = new LazyBinaryHeap(16);
+      backwardQueue = new LazyBinaryHeap(16);
+      touched = new int[16];
+    }
+
+    /**
+     * Runs both upward searches until neither can improve on the best meeting node.
+     *
+     * @param start the id of the starting node
+     * @param end   the id of the destination node
+     * @return the cost of the shortest path
+     * @throws NoSuchElementException when no path from start to end is found
+     */
+    double search(int start, int end) {
+      this.start = start;
+      this.meet = -1;
+      double best = Double.POSITIVE_INFINITY;
+      label(forwardDist, forwardParent, forwardEdge, start, 0.0, -1, -1);
+      label(backwardDist, backwardParent, backwardEdge, end, 0.0, -1, -1);
+      forwardQueue.push(start, 0.0);
+      backwardQueue.push(end, 0.0);
+
+      while (true) {
+        double forwardMin = forwardQueue.isEmpty() ? Double.POSITIVE_INFINITY
+            : forwardQueue.peekKey();
+        double backwardMin = backwardQueue.isEmpty() ? Double.POSITIVE_INFINITY
+            : backwardQueue.peekKey();
+        if (forwardMin >= best && backwardMin >= best) {
+          break;
+        }
+        boolean forward = forwardMin <= backwardMin;
+        LazyBinaryHeap queue = forward ? forwardQueue : backwardQueue;
+        double[] dist = forward ? forwardDist : backwardDist;
+        double[] otherDist = forward ? backwardDist : forwardDist;
+        double cost = queue.peekKey();
+        int current = queue.poll();
+        if (cost > dist[current]) {
+          continue; // stale copy of a node reached more cheaply later
+        }
+        if (cost + otherDist[current] < best) {
+          best = cost + otherDist[current];
+          meet = current;
+        }
+
+        int[] offsets = forward ? upOffsets : downOffsets;
+        int[] neighbors = forward ? upTargets : downSources;
+        double[] weights = forward ? upWeights : downWeights;
+        for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+          int next = neighbors[e];
+          double pathCost = cost + weights[e];
+          if (pathCost < dist[next]) {
+            if (forward) {
+              label(forwardDist, forwardParent, forwardEdge, next, pathCost, current, e);
+            } else {
+              label(backwardDist, backwardParent, backwardEdge, next, pathCost, current, e);
+            }
+            queue.push(next, pathCost);
+          }
+        }
+      }
+      if (meet == -1) {
+        throw new NoSuchElementException("No Path Between Start and End Nodes");
+      }
+      return best;
+    }
+
+    /**
+     * Helper method that sets the cost and parent of a node within one of the searches.
+     */
+    private void label(double[] dist, int[] parent, int[] edge, int node, double cost,
+        int parentNode, int parentEdge) {
+      if (forwardDist[node] == Double.POSITIVE_INFINITY
+          && backwardDist[node] == Double.POSITIVE_INFINITY) {
+        if (touchedCount == touched.length) {
+          touched = Arrays.copyOf(touched, touchedCount * 2);
+        }
+        touched[touchedCount++] = node;
+      }
+      dist[node] = cost;
+      parent[node] = parentNode;
+      edge[node] = parentEdge;
+    }
+
+    /**
+     * Unpacks the path found by the last search into the nodes and edges of the original graph.
+     *
+     * @return the path, hop weights and total cost of the shortest path
+     */
+    PathResult<NodeType> unpack() {
+      // collect the upward edges from start to the meeting node, then the downward ones to end
+      ArrayList<Integer> upEdges = new ArrayList<Integer>();
+      for (int node = meet; forwardParent[node] != -1; node = forwardParent[node]) {
+        upEdges.add(forwardEdge[node]);
+      }
+      ArrayList<NodeType> path = new ArrayList<NodeType>();
+      ArrayList<Double> hopCosts = new ArrayList<Double>();
+      path.add(graph.nodeData[start]);
+      int from = start;
+      for (int i = upEdges.size() - 1; i >= 0; i--) {
+        int e = upEdges.get(i);
+        unpackEdge(from, upTargets[e], upWeights[e], upMiddles[e], path, hopCosts);
+        from = upTargets[e];
+      }
+      for (int node = meet; backwardParent[node] != -1; node = backwardParent[node]) {
+        int e = backwardEdge[node];
+        unpackEdge(node, backwardParent[node], downWeights[e], downMiddles[e], path, hopCosts);
+      }
+
+      // sum the hops from start to end so the cost matches the one Dijkstra's algorithm computes
+      double totalCost = 0.0;
+      for (double hopCost : hopCosts) {
+        totalCost += hopCost;
+      }
+      return new PathResult<NodeType>(path, hopCosts, totalCost);
+    }
+
+    /**
+     * Puts every array entry set by the last search back to its initial value.
+     */
+    void reset() {
+      for (int i = 0; i < touchedCount; i++) {
+        forwardDist[touched[i]] = Double.POSITIVE_INFINITY;
+        backwardDist[touched[i]] = Double.POSITIVE_INFINITY;
+      }
+      touchedCount = 0;
+      forwardQueue.clear();
+      backwardQueue.clear();
+    }
+  }
+
+  /**
+   * Helper method that appends the original nodes and edge weights that make up one edge of the
+   * hierarchy to a path, replacing each shortcut by the two edges it bypasses.
+   *
+   * @param from     the id of the node the edge leaves
+   * @param to       the id of the node the edge enters
+   * @param weight   the weight of the edge
+   * @param middle   the node the edge bypasses, or -1 for an edge of the original graph
+   * @param path     the node data along the path so far, ending with from
+   * @param hopCosts the hop weights along the path so far
+   */
+  private void unpackEdge(int from, int to, double weight, int middle, List<NodeType> path,
+      List<Double> hopCosts) {
+    // pending edges are kept on a stack of (from, to) pairs, the next edge to unpack on top
+    int[] stack = new int[16];
+    int size = 0;
+    while (true) {
+      if (middle == -1) {
+        path.add(graph.nodeData[to]);
+        hopCosts.add(weight);
+        if (size == 0) {
+          return;
+        }
+        to = stack[--size];
+        from = stack[--size];
+      } else {
+        if (size + 2 > stack.length) {
+          stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[size++] = middle;
+        stack[size++] = to;
+        to = middle;
+      }
+      // look up the weight and middle node of the edge from -> to
+      int e = findEdge(from, to);
+      if (rank[from] < rank[to]) {
+        weight = upWeights[e];
+        middle = upMiddles[e];
+      } else {
+        weight = downWeights[e];
+        middle = downMiddles[e];
+      }
+    }
+  }
+
+  /**
+   * Helper method that finds the index of the hierarchy edge from one node to another, within the
+   * upward arrays if from ranks lower than to, or within the downward arrays otherwise.
+   *
+   * @param from the id of the node the edge leaves
+   * @param to   the id of the node the edge enters
+   * @return the index of the edge
+   */
+  private int findEdge(int from, int to) {
+    if (rank[from] < rank[to]) {
+      for (int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+        if (upTargets[e] == to) {
+          return e;
+        }
+      }
+    } else {
+      for (int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+        if (downSources[e] == from) {
+          return e;
+        }
+      }
+    }
+    throw new IllegalStateException("shortcut refers to a missing edge");
+  }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * This class estimates the walking time between two buildings as the straight line distance
+ * between their coordinates divided by the fastest walking speed. Since no walking path can be
+ * shorter than a straight line, nor be walked faster than the fastest speed, the estimate never
+ * overestimates. Buildings without coordinates are estimated at 0, which is always admissible.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public class CoordinateHeuristic<NodeType> implements Heuristic<NodeType> {
+
+  // private class variables
+  private final MapADT<NodeType, double[]> coordinates = new PlaceholderMap<>();
+  private final double maxSpeed;
+
+  /**
+   * constructor for the class
+   *
+   * @param maxSpeed the fastest speed along any edge, in coordinate units per unit of edge weight
+   * @throws IllegalArgumentException if maxSpeed is not positive
+   */
+  public CoordinateHeuristic(double maxSpeed) {
+    if (!(maxSpeed > 0)) {
+      throw new IllegalArgumentException("maximum speed must be positive");
+    }
+    this.maxSpeed = maxSpeed;
+  }
+
+  /**
+   * Stores the coordinates of a building, replacing any coordinates it already had
+   *
+   * @param data the data item in the node to set coordinates for
+   * @param x    the x coordinate of the node
+   * @param y    the y coordinate of the node
+   */
+  public void setCoordinates(NodeType data, double x, double y) {
+    if (coordinates.containsKey(data)) {
+      coordinates.remove(data);
+    }
+    coordinates.put(data, new double[] {x, y});
+  }
+
+  /**
+   * Estimates the walking time between two buildings from their coordinates
+   *
+   * @param from the data item in the node the remaining path starts from
+   * @param to   the data item in the destination node
+   * @return the straight line distance divided by the maximum speed, or 0 if either building has
+   *         no coordinates
+   */
+  @Override
+  public double estimate(NodeType from, NodeType to) {
+    if (!coordinates.containsKey(from) || !coordinates.containsKey(to)) {
+      return 0.0;
+    }
+    double[] a = coordinates.get(from);
+    double[] b = coordinates.get(to);
+    return Math.hypot(a[0] - b[0], a[1] - b[1]) / maxSpeed;
+  }
+
+}
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone bucket queue (Dial's algorithm) of int node ids. Keys are grouped into buckets of a
+ * fixed width, and because Dijkstra's algorithm never offers a key smaller than the last one it
+ * polled, nor one more than the largest edge weight past it, only a window of buckets is ever in
+ * use. That window is kept in a circular array, so offering an id is constant time and polling
+ * only steps over the empty buckets between consecutive keys.
+ *
+ * The queue stays monotone even when it runs empty in the middle of a search, so it must be
+ * cleared before it is used for the next search. Ids in the same bucket are polled in no particular
+ * order, so searches are exact only when every edge weight is a multiple of the bucket width: then
+ * all ids in a bucket share the same path cost and their order does not matter. Like
+ * LazyBinaryHeap, a cheaper key for an id that is already in the queue adds a second copy, and
+ * searches skip the stale copy when it is polled.
+ */
+public class DialBucketQueue implements Frontier {
+
+  // private class variables
+  private final double bucketWidth;
+  // first entry of each bucket in the circular window, -1 for empty buckets
+  private final int[] bucketHeads;
+  // entries are linked into their bucket through entryNext, and freed entries are reused
+  private int[] entryIds;
+  private double[] entryKeys;
+  private int[] entryNext;
+  private int entryCount = 0;
+  private int freeEntry = -1;
+  private int size = 0;
+  // number of the bucket holding the smallest key, counted from a key of zero, or -1 before the
+  // first offer since the queue was created or cleared
+  private long cursor = -1;
+
+  /**
+   * constructor for the class
+   *
+   * @param initialCapacity the number of entries the queue can hold before it has to grow
+   * @param bucketWidth     the range of keys grouped into one bucket
+   * @param maxKeySpread    the most that any offered key exceeds the smallest key in the queue,
+   *                        which is the largest edge weight for Dijkstra's algorithm
+   * @throws IllegalArgumentException if bucketWidth is not positive or maxKeySpread is negative
+   */
+  public DialBucketQueue(int initialCapacity, double bucketWidth, double maxKeySpread) {
+    if (!(bucketWidth > 0)) {
+      throw new IllegalArgumentException("bucket width must be positive");
+    }
+    if (!(maxKeySpread >= 0)) {
+      throw new IllegalArgumentException("key spread cannot be negative");
+    }
+    this.bucketWidth = bucketWidth;
+    this.bucketHeads = new int[(int) Math.round(maxKeySpread / bucketWidth) + 1];
+    Arrays.fill(bucketHeads, -1);
+    this.entryIds = new int[Math.max(1, initialCapacity)];
+    this.entryKeys = new double[Math.max(1, initialCapacity)];
+    this.entryNext = new int[Math.max(1, initialCapacity)];
+  }
+
+  /**
+   * Adds an id with the given key to the queue, even when that id is already in the queue
+   *
+   * @param id  the node id to add
+   * @param key the priority of that id, no smaller than the smallest key in the queue and no more
+   *            than maxKeySpread above it
+   * @throws IllegalArgumentException if the key is further above the smallest key than the window
+   *                                  of buckets reaches
+   */
+  @Override
+  public void offer(int id, double key) {
+    long bucket = Math.round(key / bucketWidth);
+    if (cursor == -1) {
+      cursor = bucket;
+    } else if (bucket < cursor) {
+      bucket = cursor; // rounding noise below the current bucket belongs to the current bucket
+    } else if (bucket - cursor >= bucketHeads.length) {
+      throw new IllegalArgumentException("key " + key + " is beyond the bucket window");
+    }
+    int entry = allocateEntry();
+    int slot = (int) (bucket % bucketHeads.length);
+    entryIds[entry] = id;
+    entryKeys[entry] = key;
+    entryNext[entry] = bucketHeads[slot];
+    bucketHeads[slot] = entry;
+    size++;
+  }
+
+  @Override
+  public int poll() {
+    int slot = advanceToSmallest();
+    int entry = bucketHeads[slot];
+    bucketHeads[slot] = entryNext[entry];
+    entryNext[entry] = freeEntry;
+    freeEntry = entry;
+    size--;
+    return entryIds[entry];
+  }
+
+  @Override
+  public double peekKey() {
+    return entryKeys[bucketHeads[advanceToSmallest()]];
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * getter method that returns the range of keys grouped into one bucket
+   *
+   * @return the bucket width
+   */
+  public double getBucketWidth() {
+    return bucketWidth;
+  }
+
+  /**
+   * getter method that returns the number of buckets in the circular window
+   *
+   * @return the number of buckets, one more than the largest key spread divided by the width
+   */
+  public int getBucketCount() {
+    return bucketHeads.length;
+  }
+
+  @Override
+  public void clear() {
+    if (size > 0) {
+      Arrays.fill(bucketHeads, -1);
+    }
+    entryCount = 0;
+    freeEntry = -1;
+    size = 0;
+    cursor = -1;
+  }
+
+  /**
+   * Helper method that moves the cursor forward to the first non-empty bucket
+   *
+   * @return the slot of that bucket in the circular window
+   * @throws NoSuchElementException if the queue is empty
+   */
+  private int advanceToSmallest() {
+    if (size == 0) {
+      throw new NoSuchElementException("queue is empty");
+    }
+    int slot = (int) (cursor % bucketHeads.length);
+    while (bucketHeads[slot] == -1) {
+      cursor++;
+      slot = slot + 1 == bucketHeads.length ? 0 : slot + 1;
+    }
+    return slot;
+  }
+
+  /**
+   * Helper method that returns an unused entry, reusing freed entries before growing the arrays
+   */
+  private int allocateEntry() {
+    if (freeEntry != -1) {
+      int entry = freeEntry;
+      freeEntry = entryNext[entry];
+      return entry;
+    }
+    if (entryCount == entryIds.length) {
+      entryIds = Arrays.copyOf(entryIds, entryCount * 2);
+      entryKeys = Arrays.copyOf(entryKeys, entryCount * 2);
+      entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+    }
+    return entryCount++;
+  }
+}
@@ -9,9 +9,15 @@
 import java.util.PriorityQueue;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * This class extends the BaseGraph data structure with additional methods for computing the total
@@ -26,31 +32,81 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
    * specific path between the start node and another node in the graph. The final node in this path
    * is stored in its node field. The total cost of this path is stored in its cost field. And the
    * predecessor SearchNode within this path is referened by the predecessor field (this field is
-   * null within the SearchNode containing the starting node in its node field).
+   * null within the SearchNode containing the starting node in its node field). The weight of the
+   * edge from the predecessor's node to this node is stored in the edgeCost field (0 for the
+   * starting node), so the weight of every hop can be read back from the chain without looking the
+   * edges up again.
    *
    * SearchNodes are Comparable and are sorted by cost so that the lowest cost SearchNode has the
-   * highest priority within a java.util.PriorityQueue.
+   * highest priority within a java.util.PriorityQueue. During an A* search the estimate field holds
+   * the heuristic's estimate of the remaining cost to the end node, and SearchNodes are sorted by
+   * cost plus estimate instead (the estimate is 0 for Dijkstra's algorithm).
    */
   protected class SearchNode implements Comparable<SearchNode> {
     public Node node;
     public double cost;
     public SearchNode predecessor;
+    public double edgeCost;
+    public double estimate;
 
     public SearchNode(Node node, double cost, SearchNode predecessor) {
+      this(node, cost, predecessor, 0.0);
+    }
+
+    public SearchNode(Node node, double cost, SearchNode predecessor, double edgeCost) {
       this.node = node;
       this.cost = cost;
       this.predecessor = predecessor;
+      this.edgeCost = edgeCost;
     }
 
     public int compareTo(SearchNode other) {
-      if (cost > other.cost)
+      double priority = cost + estimate;
+      double otherPriority = other.cost + other.estimate;
+      if (priority > otherPriority)
         return +1;
-      if (cost < other.cost)
+      if (priority < otherPriority)
         return -1;
       return 0;
     }
   }
 
+  // most recent snapshot returned by freeze(), only used while modCount still equals frozenModCount
+  private FrozenGraph<NodeType> frozen = null;
+  private long frozenModCount = -1;
+  // the kind of frontier that searches on frozen snapshots expand nodes from
+  private Frontier.Type frontierType = FrozenGraph.DEFAULT_FRONTIER_TYPE;
+  private int frontierArity = FrozenGraph.DEFAULT_FRONTIER_ARITY;
+  private double bucketWidth = 0.0;
+  // snapshot passed to load() whose Node and Edge objects have not been created yet, or null. It
+  // is only cleared once they all exist, so a thread that sees null sees every one of them.
+  private volatile FrozenGraph<NodeType> unmaterialized = null;
+  // in concurrent mode, the snapshot every query runs on, replaced after each change; null while
+  // concurrent mode is off
+  private volatile Published<NodeType> published = null;
+  // held by every change, so only one thread at a time touches the Node and Edge objects
+  private final Object writeLock = new Object();
+  // number of change() calls the thread holding writeLock is inside of
+  private int changeDepth = 0;
+  // components of the Node and Edge objects, which searches on them use to reject pairs without a
+  // path; null until the first search needs it and after an edge is added. Removing edges and
+  // nodes only takes paths away, and new nodes get ids the index does not know, so neither makes
+  // it wrong.
+  private ReachabilityIndex nodeReachability = null;
+
+  /**
+   * A snapshot published for concurrent queries, along with the modCount it was taken at
+   */
+  private static class Published<NodeType> {
+    private final FrozenGraph<NodeType> graph;
+    private final long modCount;
+
+    private Published(FrozenGraph<NodeType> graph, long modCount) {
+      this.graph = graph;
+      this.modCount = modCount;
+    }
+  }
+
   /**
    * Constructor that sets the map that the graph uses.
    * 
@@ -60,6 +116,462 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
     super(map);
   }
 
+  /**
+   * Creates an immutable compressed sparse row snapshot of this graph. Until the next change to this
+   * graph's nodes or edges, shortestPathData(), shortestPathCost() and shortestPathResult() run
+   * against this snapshot instead of walking the Node and Edge objects. Calling freeze() again
+   * without changing the graph in between returns the same snapshot. In concurrent mode this
+   * returns the published snapshot, except to the thread making changes inside edit().
+   *
+   * @return a snapshot of the graph as it is right now
+   * @throws IllegalArgumentException if setBucketQueue() was called and some edge weight is not a
+   *                                  non-negative multiple of the bucket width
+   */
+  public FrozenGraph<NodeType> freeze() {
+    Published<NodeType> current = readerSnapshot();
+    if (current != null) {
+      return current.graph;
+    }
+    return snapshot();
+  }
+
+  /**
+   * Helper method that does the work of freeze(), building a new snapshot only when the graph
+   * changed since the last one
+   */
+  @SuppressWarnings("unchecked")
+  private FrozenGraph<NodeType> snapshot() {
+    if (isFrozen()) {
+      return frozen;
+    }
+    int idCount = nodesById.size();
+    NodeType[] nodeData = (NodeType[]) new Object[idCount];
+    int[] offsets = new int[idCount + 1];
+    int edgeTotal = 0;
+    for (int id = 0; id < idCount; id++) {
+      Node node = nodesById.get(id);
+      offsets[id] = edgeTotal;
+      if (node != null) {
+        nodeData[id] = node.data;
+        edgeTotal += node.edgesLeaving.size();
+      }
+    }
+    offsets[idCount] = edgeTotal;
+
+    // copy each node's leaving edges into its slice of the targets and weights arrays
+    int[] targets = new int[edgeTotal];
+    double[] weights = new double[edgeTotal];
+    for (int id = 0; id < idCount; id++) {
+      Node node = nodesById.get(id);
+      if (node != null) {
+        int e = offsets[id];
+        for (Edge edge : node.edgesLeaving) {
+          targets[e] = edge.successor.id;
+          weights[e] = edge.data.doubleValue();
+          e++;
+        }
+      }
+    }
+    frozen = new FrozenGraph<NodeType>(nodeData, new NodeDictionary<NodeType>(nodeData), offsets,
+        targets, weights, super.getNodeCount(), frontierType, frontierArity, bucketWidth);
+    frozenModCount = modCount;
+    return frozen;
+  }
+
+  /**
+   * Chooses the kind of frontier that searches on frozen snapshots of this graph expand nodes
+   * from. The current snapshot, if it still matches the graph, switches right away.
+   *
+   * @param type  the frontier implementation to search with
+   * @param arity the number of children of each heap entry, for INDEXED_DARY frontiers
+   * @throws IllegalArgumentException if arity is less than two
+   */
+  public void setFrontier(Frontier.Type type, int arity) {
+    if (arity < 2) {
+      throw new IllegalArgumentException("heap arity must be at least two");
+    }
+    if (type == Frontier.Type.DIAL_BUCKET) {
+      throw new IllegalArgumentException("bucket queues need a bucket width, use setBucketQueue()");
+    }
+    synchronized (writeLock) {
+      frontierType = type;
+      frontierArity = arity;
+      bucketWidth = 0.0;
+      if (isFrozen()) {
+        frozen = frozen.withFrontier(type, arity);
+      }
+      if (published != null) {
+        publish();
+      }
+    }
+  }
+
+  /**
+   * Makes searches on frozen snapshots of this graph expand nodes from a DialBucketQueue, which
+   * offers and polls nodes in constant amortized time. Every edge weight must be a non-negative
+   * multiple of the bucket width whenever the graph is frozen. The current snapshot, if it still
+   * matches the graph, switches right away.
+   *
+   * @param bucketWidth the range of path costs in one bucket
+   * @throws IllegalArgumentException if bucketWidth is not positive, or if the graph is frozen and
+   *                                  some edge weight is negative or not a multiple of bucketWidth
+   */
+  public void setBucketQueue(double bucketWidth) {
+    if (!(bucketWidth > 0)) {
+      throw new IllegalArgumentException("bucket width must be positive");
+    }
+    synchronized (writeLock) {
+      if (isFrozen()) {
+        frozen = frozen.withBucketQueue(bucketWidth);
+      }
+      this.frontierType = Frontier.Type.DIAL_BUCKET;
+      this.bucketWidth = bucketWidth;
+      if (published != null) {
+        publish();
+      }
+    }
+  }
+
+  /**
+   * getter method that returns the kind of frontier searches on frozen snapshots of this graph
+   * expand nodes from
+   *
+   * @return the frontier implementation chosen by setFrontier() or setBucketQueue()
+   */
+  public Frontier.Type getFrontierType() {
+    synchronized (writeLock) {
+      return frontierType;
+    }
+  }
+
+  /**
+   * getter method that returns the number of children of each heap entry, for INDEXED_DARY
+   * frontiers
+   *
+   * @return the heap arity chosen by setFrontier()
+   */
+  public int getFrontierArity() {
+    synchronized (writeLock) {
+      return frontierArity;
+    }
+  }
+
+  /**
+   * getter method that returns the range of path costs in one bucket, for DIAL_BUCKET frontiers
+   *
+   * @return the bucket width chosen by setBucketQueue(), or 0 if no bucket queue was chosen
+   */
+  public double getBucketWidth() {
+    synchronized (writeLock) {
+      return bucketWidth;
+    }
+  }
+
+  /**
+   * Checks whether the snapshot from the last call to freeze() still matches this graph.
+   *
+   * @return true if queries are currently answered by a frozen snapshot, false otherwise
+   */
+  public boolean isFrozen() {
+    return frozen != null && frozenModCount == modCount;
+  }
+
+  /**
+   * Turns concurrent mode on or off. In concurrent mode, any number of threads can run
+   * shortestPathData(), shortestPathCost(), shortestPathResult() and the other snapshot queries
+   * at once, without locking, while other threads change the graph. Queries run against the most
+   * recently published snapshot of the graph. Changes are made one at a time under a lock, and
+   * each one freezes and publishes a new snapshot when it is done (copy on write), so a query
+   * sees the graph either before or after a change, never in between. Each change copies the
+   * whole graph, so changes that belong together should be made inside one call to edit().
+   *
+   * A* and bidirectional searches, containsEdge() and getEdge() walk the Node and Edge objects,
+   * so in concurrent mode they take the lock that changes hold. Inside edit(), every query made
+   * by the thread making the changes, node and edge queries alike, reads the Node and Edge
+   * objects and sees those changes, while other threads keep seeing the published snapshot.
+   *
+   * @param enabled true to publish snapshots for concurrent queries, false to stop
+   * @throws IllegalArgumentException if setBucketQueue() was called and some edge weight is not a
+   *                                  non-negative multiple of the bucket width
+   */
+  public void setConcurrent(boolean enabled) {
+    synchronized (writeLock) {
+      if (!enabled) {
+        published = null;
+      } else if (published == null) {
+        publish();
+      }
+    }
+  }
+
+  /**
+   * Checks whether the graph is in concurrent mode
+   *
+   * @return true if queries run against published snapshots, false otherwise
+   */
+  public boolean isConcurrent() {
+    return published != null;
+  }
+
+  /**
+   * Makes several changes to the graph as one. No other thread can change the graph while edits
+   * runs, and in concurrent mode one snapshot is published after all of the changes instead of
+   * one after each, so concurrent queries never see only some of them.
+   *
+   * @param edits the changes to make, by calling this graph's insert and remove methods
+   */
+  public void edit(Runnable edits) {
+    change(() -> {
+      edits.run();
+      return null;
+    });
+  }
+
+  /**
+   * Helper method that makes a change to the graph while holding the write lock, and publishes a
+   * new snapshot afterwards if the graph is in concurrent mode, the change really changed it, and
+   * it is not part of a larger edit()
+   *
+   * @param change the change to make
+   * @return what change returns
+   */
+  private <T> T change(Supplier<T> change) {
+    synchronized (writeLock) {
+      materialize();
+      changeDepth++;
+      try {
+        return change.get();
+      } finally {
+        changeDepth--;
+        Published<NodeType> current = published;
+        if (changeDepth == 0 && current != null && current.modCount != modCount) {
+          publish();
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method that reads the Node and Edge objects, under the write lock in concurrent mode
+   *
+   * @param read the read to make
+   * @return what read returns
+   */
+  private <T> T readNodes(Supplier<T> read) {
+    if (published == null) {
+      materialize();
+      return read.get();
+    }
+    synchronized (writeLock) {
+      materialize();
+      return read.get();
+    }
+  }
+
+  /**
+   * Helper method that freezes the graph and publishes the snapshot to concurrent queries. The
+   * snapshot's reachability index is built here, on the thread making the change, rather than by
+   * the first query after it, and is carried over when only edge weights changed. Must only be
+   * called while holding writeLock.
+   */
+  private void publish() {
+    FrozenGraph<NodeType> snapshot = snapshot();
+    snapshot.prepareReachabilityIndex(published == null ? null : published.graph);
+    published = new Published<NodeType>(snapshot, modCount);
+  }
+
+  /**
+   * Helper method that returns the published snapshot the calling thread reads from, or null when
+   * it reads the Node and Edge objects instead: when concurrent mode is off, or when the calling
+   * thread holds the write lock, since the thread making changes has to see its own changes
+   * before they are published
+   */
+  private Published<NodeType> readerSnapshot() {
+    Published<NodeType> current = published;
+    return current == null || Thread.holdsLock(writeLock) ? null : current;
+  }
+
+  /**
+   * Helper method that returns the snapshot queries should run on: the published one in
+   * concurrent mode, otherwise the one from freeze() if it still matches the graph, or null
+   */
+  private FrozenGraph<NodeType> querySnapshot() {
+    Published<NodeType> current = readerSnapshot();
+    if (current != null) {
+      return current.graph;
+    }
+    return isFrozen() ? frozen : null;
+  }
+
+  /**
+   * Fills this empty graph with the nodes and edges of a snapshot, such as one read back by
+   * GraphSnapshot.read(), and answers queries from that snapshot right away. The Node and Edge
+   * objects are only created the first time the graph is changed, or asked about a single edge,
+   * so loading a large snapshot takes about as long as reading its arrays. Searches on the graph
+   * use the snapshot's frontier. Snapshots store edge weights as doubles, so EdgeType must be
+   * Double.
+   *
+   * @param snapshot the nodes and edges to load
+   * @throws IllegalArgumentException if the graph already has nodes
+   */
+  public void load(FrozenGraph<NodeType> snapshot) {
+    change(() -> {
+      if (super.getNodeCount() > 0 || !nodesById.isEmpty()) {
+        throw new IllegalArgumentException("snapshots can only be loaded into an empty graph");
+      }
+      frontierType = snapshot.frontierType;
+      frontierArity = snapshot.frontierArity;
+      bucketWidth = snapshot.bucketWidth;
+      modCount++;
+      frozen = snapshot;
+      frozenModCount = modCount;
+      unmaterialized = snapshot;
+      nodeReachability = null;
+      return null;
+    });
+  }
+
+  /**
+   * Helper method that creates the Node and Edge objects of a snapshot passed to load(), if that
+   * has not been done yet. Node ids stay the same and modCount does not change, so the snapshot
+   * keeps answering queries until the graph is actually changed. The objects are created under
+   * the write lock, so when several readers need them at once only one creates them, and the
+   * others wait until they are all there.
+   */
+  private void materialize() {
+    if (unmaterialized == null) {
+      return;
+    }
+    synchronized (writeLock) {
+      FrozenGraph<NodeType> snapshot = unmaterialized;
+      if (snapshot != null) {
+        materialize(snapshot);
+        unmaterialized = null;
+      }
+    }
+  }
+
+  /**
+   * Helper method that does the work of materialize(), creating the Node and Edge objects of a
+   * snapshot
+   *
+   * @param snapshot the snapshot passed to load()
+   */
+  @SuppressWarnings("unchecked")
+  private void materialize(FrozenGraph<NodeType> snapshot) {
+    Object[] nodeData = (Object[]) ((FrozenGraph<?>) snapshot).nodeData;
+    for (int id = 0; id < nodeData.length; id++) {
+      Node node = null;
+      if (nodeData[id] != null) {
+        node = new Node((NodeType) nodeData[id]);
+        node.id = id;
+        nodes.put(node.data, node);
+      }
+      nodesById.add(node);
+    }
+    for (int id = 0; id < nodeData.length; id++) {
+      Node node = nodesById.get(id);
+      for (int e = snapshot.offsets[id]; e < snapshot.offsets[id + 1]; e++) {
+        Node successor = nodesById.get(snapshot.targets[e]);
+        Edge edge = new Edge((EdgeType) Double.valueOf(snapshot.weights[e]), node, successor);
+        node.edgesLeaving.add(edge);
+        successor.edgesEntering.add(edge);
+        if (edgeIndex != null) {
+          edgeIndex.put(edgeKey(node, successor), edge);
+        }
+      }
+    }
+    edgeCount = snapshot.getEdgeCount();
+  }
+
+  @Override
+  public boolean insertNode(NodeType data) {
+    return change(() -> super.insertNode(data));
+  }
+
+  @Override
+  public boolean removeNode(NodeType data) {
+    return change(() -> super.removeNode(data));
+  }
+
+  @Override
+  public void insertAll(List<NodeType> data, int[] preds, int[] succs, List<EdgeType> weights) {
+    change(() -> {
+      super.insertAll(data, preds, succs, weights);
+      return null;
+    });
+  }
+
+  @Override
+  public boolean containsNode(NodeType data) {
+    Published<NodeType> current = readerSnapshot();
+    if (current != null) {
+      return current.graph.containsNode(data);
+    }
+    FrozenGraph<NodeType> loaded = unmaterialized;
+    return loaded != null ? loaded.containsNode(data) : super.containsNode(data);
+  }
+
+  @Override
+  public int getNodeCount() {
+    Published<NodeType> current = readerSnapshot();
+    if (current != null) {
+      return current.graph.getNodeCount();
+    }
+    FrozenGraph<NodeType> loaded = unmaterialized;
+    return loaded != null ? loaded.getNodeCount() : super.getNodeCount();
+  }
+
+  @Override
+  public boolean insertEdge(NodeType pred, NodeType succ, EdgeType weight) {
+    return change(() -> {
+      int oldEdgeCount = edgeCount;
+      boolean inserted = super.insertEdge(pred, succ, weight);
+      if (edgeCount != oldEdgeCount) {
+        nodeReachability = null; // a new edge can join components, a new weight cannot
+      }
+      return inserted;
+    });
+  }
+
+  @Override
+  public boolean removeEdge(NodeType pred, NodeType succ) {
+    return change(() -> super.removeEdge(pred, succ));
+  }
+
+  @Override
+  public boolean containsEdge(NodeType pred, NodeType succ) {
+    return readNodes(() -> super.containsEdge(pred, succ));
+  }
+
+  @Override
+  public EdgeType getEdge(NodeType pred, NodeType succ) {
+    return readNodes(() -> super.getEdge(pred, succ));
+  }
+
+  @Override
+  public int getEdgeCount() {
+    Published<NodeType> current = readerSnapshot();
+    if (current != null) {
+      return current.graph.getEdgeCount();
+    }
+    FrozenGraph<NodeType> loaded = unmaterialized;
+    return loaded != null ? loaded.getEdgeCount() : super.getEdgeCount();
+  }
+
+  /**
+   * Return the number of changes made to this graph so far. In concurrent mode this is the number
+   * of changes in the published snapshot, so it matches what queries see, except inside edit()
+   * where the thread making changes sees its own.
+   *
+   * @return the number of node, edge and edge weight changes made so far
+   */
+  @Override
+  public long getModCount() {
+    Published<NodeType> current = readerSnapshot();
+    return current != null ? current.modCount : super.getModCount();
+  }
+
   /**
    * This helper method creates a network of SearchNodes while computing the shortest path between
    * the provided start and end locations. The SearchNode that is returned by this method is
@@ -77,10 +589,15 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
     if (start == null || end == null) {
       throw new NoSuchElementException();
     }
+    materialize();
+    if (!nodeMightReach(start, end)) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
     PriorityQueue<SearchNode> queue = new PriorityQueue<SearchNode>(); // create priority queue
 
-    // map of paths already found
-    MapADT<NodeType, Double> pathsFound = new PlaceholderMap<NodeType, Double>();
+    // map of paths already found, which starts small and grows with the nodes the search reaches,
+    // so a short route does not pay for a table the size of the whole graph
+    ObjectDoubleMap<NodeType> pathsFound = new ObjectDoubleMap<NodeType>();
     // create node from start NodeType
     Node startNode = nodes.get(start);
     // get edgesLeaving
@@ -98,31 +615,242 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
       SearchNode currentSearchNode = queue.poll();
       Node currentNode = currentSearchNode.node; // currentNode to currentSearchNode's node
 
+      // skip copies of nodes that were reached more cheaply after this copy was queued, instead of
+      // scanning their edges again
+      if (currentSearchNode.cost > pathsFound.getDouble(currentNode.data, 0.0)) {
+        continue;
+      }
       // if shortest found path to end node
       if (currentSearchNode.node.data.equals(end)) {
         return currentSearchNode; // return path
       }
       // add all of the edges from the current node into the graph as new searchNodes
       for (Edge edge : currentNode.edgesLeaving) {
-        Double pathCost = currentSearchNode.cost + edge.data.doubleValue(); // pathCost = old cost + edge
+        double edgeCost = edge.data.doubleValue();
+        double pathCost = currentSearchNode.cost + edgeCost; // pathCost = old cost + edge
         Node successor = edge.successor;
-        // add new search node to queue, node is end of edge, path cost above
-        if (!pathsFound.containsKey(successor.data)) {
-          pathsFound.put(successor.data, pathCost);
-          queue.add(new SearchNode(successor, pathCost, currentSearchNode));
+        // add new search node to queue if node is not in map or this path is cheaper, with a
+        // single lookup that returns infinity for nodes not reached yet
+        if (pathCost < pathsFound.getDouble(successor.data, Double.POSITIVE_INFINITY)) {
+          pathsFound.set(successor.data, pathCost);
+          queue.add(new SearchNode(successor, pathCost, currentSearchNode, edgeCost));
+        }
+      }
+    }
 
-        } else if (pathCost < pathsFound.get(successor.data)) { // node is not in map
-          pathsFound.remove(successor.data);
-          pathsFound.put(successor.data, pathCost);
-          queue.add(new SearchNode(successor, pathCost, currentSearchNode));
+    // if path to end node was never found, throw exception
+    throw new NoSuchElementException("No Path Between Start and End Nodes");
+
+  }
+
+  /**
+   * This helper method computes the shortest path between the provided start and end locations with
+   * the A* algorithm. It works like computeShortestPath(), except that SearchNodes are ordered by
+   * their cost plus the heuristic's estimate of the remaining cost to the end node, so nodes in the
+   * direction of the end node are expanded first. As long as the heuristic never overestimates, the
+   * path found has the same cost as the one found by Dijkstra's algorithm.
+   *
+   * @param start     the data item in the starting node for the path
+   * @param end       the data item in the destination node for the path
+   * @param heuristic the estimate of the remaining cost from any node to the end node
+   * @return the path, hop weights, total cost and number of expanded nodes of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  protected PathResult<NodeType> computeShortestPathAStar(NodeType start, NodeType end,
+      Heuristic<NodeType> heuristic) {
+    materialize();
+    if (start == null || end == null || !nodes.containsKey(end)) {
+      throw new NoSuchElementException();
+    }
+    if (!nodeMightReach(start, end)) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+    PriorityQueue<SearchNode> queue = new PriorityQueue<SearchNode>();
+
+    // map of the lowest cost found so far to each node, grown as the search reaches more nodes
+    ObjectDoubleMap<NodeType> pathsFound = new ObjectDoubleMap<NodeType>();
+    Node startNode = nodes.get(start);
+    SearchNode startSearchNode = new SearchNode(startNode, 0, null);
+    startSearchNode.estimate = heuristic.estimate(start, end);
+    queue.add(startSearchNode);
+    pathsFound.put(start, 0.0);
+
+    int expandedCount = 0;
+    while (!queue.isEmpty()) {
+      SearchNode currentSearchNode = queue.poll();
+      Node currentNode = currentSearchNode.node;
 
+      // skip copies of nodes that were reached more cheaply after this copy was queued
+      if (currentSearchNode.cost > pathsFound.getDouble(currentNode.data, 0.0)) {
+        continue;
+      }
+      // if shortest found path to end node
+      if (currentNode.data.equals(end)) {
+        return toPathResult(currentSearchNode, expandedCount);
+      }
+      expandedCount++;
+      for (Edge edge : currentNode.edgesLeaving) {
+        double edgeCost = edge.data.doubleValue();
+        double pathCost = currentSearchNode.cost + edgeCost;
+        Node successor = edge.successor;
+        if (pathCost < pathsFound.getDouble(successor.data, Double.POSITIVE_INFINITY)) {
+          pathsFound.set(successor.data, pathCost);
+          SearchNode successorSearchNode =
+              new SearchNode(successor, pathCost, currentSearchNode, edgeCost);
+          successorSearchNode.estimate = heuristic.estimate(successor.data, end);
+          queue.add(successorSearchNode);
         }
       }
     }
 
     // if path to end node was never found, throw exception
     throw new NoSuchElementException("No Path Between Start and End Nodes");
+  }
 
+  /**
+   * This helper method computes the shortest path between the provided start and end locations by
+   * running two Dijkstra searches at once: a forward search from start over edgesLeaving, and a
+   * backward search from end over edgesEntering. In the backward search, a SearchNode's cost is the
+   * cost of reaching end from its node, and its predecessor is the next SearchNode on the way to
+   * end. Each step expands whichever search has the cheaper frontier, and every relaxed edge that
+   * reaches a node already labeled by the other search is a candidate meeting point. The searches
+   * stop once the sum of the two frontier minimums is no smaller than the cheapest meeting point
+   * found so far, since no unexplored path can be cheaper than that.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the path, hop weights, total cost and number of expanded nodes of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  protected PathResult<NodeType> computeShortestPathBidirectional(NodeType start, NodeType end) {
+    if (start == null || end == null) {
+      throw new NoSuchElementException();
+    }
+    materialize();
+    if (!nodeMightReach(start, end)) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+    Node startNode = nodes.get(start);
+    Node endNode = nodes.get(end);
+
+    // each search has its own queue and map of the cheapest SearchNode found for each node
+    PriorityQueue<SearchNode> forwardQueue = new PriorityQueue<SearchNode>();
+    PriorityQueue<SearchNode> backwardQueue = new PriorityQueue<SearchNode>();
+    OpenAddressingMap<NodeType, SearchNode> forwardFound =
+        new OpenAddressingMap<NodeType, SearchNode>();
+    OpenAddressingMap<NodeType, SearchNode> backwardFound =
+        new OpenAddressingMap<NodeType, SearchNode>();
+    SearchNode forwardStart = new SearchNode(startNode, 0, null);
+    SearchNode backwardStart = new SearchNode(endNode, 0, null);
+    forwardQueue.add(forwardStart);
+    backwardQueue.add(backwardStart);
+    forwardFound.put(start, forwardStart);
+    backwardFound.put(end, backwardStart);
+
+    // cheapest meeting point found so far, as the two halves of the path that meet there
+    double bestCost = Double.POSITIVE_INFINITY;
+    SearchNode bestForward = null;
+    SearchNode bestBackward = null;
+    if (start.equals(end)) {
+      bestCost = 0;
+      bestForward = forwardStart;
+      bestBackward = backwardStart;
+    }
+
+    int expandedCount = 0;
+    while (true) {
+      // drop copies of nodes that were reached more cheaply after the copy was queued
+      dropStaleSearchNodes(forwardQueue, forwardFound);
+      dropStaleSearchNodes(backwardQueue, backwardFound);
+      double forwardMin = forwardQueue.isEmpty() ? Double.POSITIVE_INFINITY
+          : forwardQueue.peek().cost;
+      double backwardMin = backwardQueue.isEmpty() ? Double.POSITIVE_INFINITY
+          : backwardQueue.peek().cost;
+      if (forwardMin + backwardMin >= bestCost) {
+        break;
+      }
+
+      // expand the search with the cheaper frontier
+      boolean forward = forwardMin <= backwardMin;
+      SearchNode currentSearchNode = forward ? forwardQueue.poll() : backwardQueue.poll();
+      OpenAddressingMap<NodeType, SearchNode> found = forward ? forwardFound : backwardFound;
+      OpenAddressingMap<NodeType, SearchNode> otherFound = forward ? backwardFound : forwardFound;
+      PriorityQueue<SearchNode> queue = forward ? forwardQueue : backwardQueue;
+      expandedCount++;
+
+      for (Edge edge : forward ? currentSearchNode.node.edgesLeaving
+          : currentSearchNode.node.edgesEntering) {
+        Node neighbor = forward ? edge.successor : edge.predecessor;
+        double edgeCost = edge.data.doubleValue();
+        double pathCost = currentSearchNode.cost + edgeCost;
+        SearchNode previous = found.getOrDefault(neighbor.data, null);
+        if (previous != null && pathCost >= previous.cost) {
+          continue;
+        }
+        if (previous != null) {
+          found.remove(neighbor.data);
+        }
+        SearchNode neighborSearchNode =
+            new SearchNode(neighbor, pathCost, currentSearchNode, edgeCost);
+        found.put(neighbor.data, neighborSearchNode);
+        queue.add(neighborSearchNode);
+
+        // check whether the other search has already reached this node
+        SearchNode other = otherFound.getOrDefault(neighbor.data, null);
+        if (other != null) {
+          if (pathCost + other.cost < bestCost) {
+            bestCost = pathCost + other.cost;
+            bestForward = forward ? neighborSearchNode : other;
+            bestBackward = forward ? other : neighborSearchNode;
+          }
+        }
+      }
+    }
+
+    // if path to end node was never found, throw exception
+    if (bestForward == null) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+
+    // the forward half lists start to the meeting node, the backward half lists the rest
+    ArrayList<NodeType> path = new ArrayList<NodeType>();
+    ArrayList<Double> hopCosts = new ArrayList<Double>();
+    for (SearchNode current = bestForward; current != null; current = current.predecessor) {
+      path.add(current.node.data);
+      if (current.predecessor != null) {
+        hopCosts.add(current.edgeCost);
+      }
+    }
+    Collections.reverse(path);
+    Collections.reverse(hopCosts);
+    for (SearchNode current = bestBackward; current.predecessor != null;
+        current = current.predecessor) {
+      path.add(current.predecessor.node.data);
+      hopCosts.add(current.edgeCost);
+    }
+
+    // sum the hops from start to end so the cost matches the one Dijkstra's algorithm computes
+    double totalCost = 0.0;
+    for (double hopCost : hopCosts) {
+      totalCost += hopCost;
+    }
+    return new PathResult<NodeType>(path, hopCosts, totalCost, expandedCount);
+  }
+
+  /**
+   * Helper method that removes SearchNodes from the front of a queue while they are no longer the
+   * cheapest SearchNode found for their node.
+   *
+   * @param queue the queue to clean up
+   * @param found the map of the cheapest SearchNode found for each node
+   */
+  private void dropStaleSearchNodes(PriorityQueue<SearchNode> queue,
+      OpenAddressingMap<NodeType, SearchNode> found) {
+    while (!queue.isEmpty() && found.get(queue.peek().node.data) != queue.peek()) {
+      queue.poll();
+    }
   }
 
   /**
@@ -137,6 +865,10 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
    * @return list of data item from node along this shortest path
    */
   public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    FrozenGraph<NodeType> snapshot = querySnapshot();
+    if (snapshot != null) {
+      return snapshot.shortestPathData(start, end);
+    }
     // get shortest path between start and end
     SearchNode shortestPathSearchNode = computeShortestPath(start, end);
 
@@ -150,24 +882,358 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
       // move through search node's path backwards
       shortestPathSearchNode = shortestPathSearchNode.predecessor;
     }
-    return shortestPath; // list of NodeTypes that create the path
+    return shortestPath; // list of NodeTypes that create the path
+  }
+
+  /**
+   * Returns the cost of the path (sum over edge weights) of the shortest path freom the node
+   * containing the start data to the node containing the end data. This method uses Dijkstra's
+   * shortest path algorithm to find this solution.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the cost of the shortest path between these nodes
+   */
+  public double shortestPathCost(NodeType start, NodeType end) {
+    FrozenGraph<NodeType> snapshot = querySnapshot();
+    if (snapshot != null) {
+      return snapshot.shortestPathCost(start, end);
+    }
+    // get shortest path between start and end
+    SearchNode shortestPathSearchNode = computeShortestPath(start, end);
+
+    // return cost of that path
+    return shortestPathSearchNode.cost;
+  }
+
+  /**
+   * Returns the node data, the weight of each hop, and the total cost of the shortest path from the
+   * node containing the start data to the node containing the end data. Unlike calling
+   * shortestPathData(), shortestPathCost() and getEdge() separately, this runs Dijkstra's algorithm
+   * once and reads everything back from the resulting chain of SearchNodes.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the path, hop weights and total cost of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public PathResult<NodeType> shortestPathResult(NodeType start, NodeType end) {
+    FrozenGraph<NodeType> snapshot = querySnapshot();
+    if (snapshot != null) {
+      return snapshot.shortestPathResult(start, end);
+    }
+    // get shortest path between start and end
+    SearchNode shortestPathSearchNode = computeShortestPath(start, end);
+    return toPathResult(shortestPathSearchNode, -1);
+  }
+
+  /**
+   * Returns the node data, the weight of each hop, the total cost, and the number of nodes expanded
+   * while searching for the shortest path from the node containing the start data to the node
+   * containing the end data. This method uses the A* algorithm guided by the provided heuristic,
+   * which must never overestimate the remaining cost. Passing Heuristic.zero() runs Dijkstra's
+   * algorithm, which is useful for comparing expanded node counts.
+   *
+   * @param start     the data item in the starting node for the path
+   * @param end       the data item in the destination node for the path
+   * @param heuristic the estimate of the remaining cost from any node to the end node
+   * @return the path, hop weights, total cost and number of expanded nodes of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public PathResult<NodeType> shortestPathResult(NodeType start, NodeType end,
+      Heuristic<NodeType> heuristic) {
+    return readNodes(() -> computeShortestPathAStar(start, end, heuristic));
+  }
+
+  /**
+   * Returns the node data, the weight of each hop, the total cost, and the number of nodes expanded
+   * while searching for the shortest path from the node containing the start data to the node
+   * containing the end data. This method searches forward from start and backward from end at the
+   * same time, which expands far fewer nodes than Dijkstra's algorithm on large graphs.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the path, hop weights, total cost and number of expanded nodes of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public PathResult<NodeType> shortestPathResultBidirectional(NodeType start, NodeType end) {
+    return readNodes(() -> computeShortestPathBidirectional(start, end));
+  }
+
+  /**
+   * Checks in constant time whether there might be a path from one node to another, using the
+   * strongly connected components of the graph. The components are found the first time they are
+   * needed, and again after an edge is added.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return false if either node is not in the graph or there is certainly no path from start to
+   *         end, or true if there might be one
+   */
+  public boolean mightReach(NodeType start, NodeType end) {
+    FrozenGraph<NodeType> snapshot = querySnapshot();
+    if (snapshot != null) {
+      return snapshot.mightReach(start, end);
+    }
+    return readNodes(() -> start != null && end != null && nodes.containsKey(start)
+        && nodes.containsKey(end) && nodeMightReach(start, end));
+  }
+
+  /**
+   * Helper method that checks the components of the Node and Edge objects for a path from start to
+   * end, finding the components first if they are not known. Nodes that are not in the graph are
+   * left for the search to report.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return false if there is certainly no path from start to end, true otherwise
+   */
+  private boolean nodeMightReach(NodeType start, NodeType end) {
+    Node startNode = nodes.getOrDefault(start, null);
+    Node endNode = nodes.getOrDefault(end, null);
+    if (startNode == null || endNode == null) {
+      return true;
+    }
+    if (nodeReachability == null) {
+      int idCount = nodesById.size();
+      int[] offsets = new int[idCount + 1];
+      for (int id = 0; id < idCount; id++) {
+        Node node = nodesById.get(id);
+        offsets[id + 1] = offsets[id] + (node == null ? 0 : node.edgesLeaving.size());
+      }
+      int[] targets = new int[offsets[idCount]];
+      for (int id = 0; id < idCount; id++) {
+        Node node = nodesById.get(id);
+        if (node != null) {
+          int e = offsets[id];
+          for (Edge edge : node.edgesLeaving) {
+            targets[e++] = edge.successor.id;
+          }
+        }
+      }
+      nodeReachability = new ReachabilityIndex(offsets, targets);
+    }
+    return nodeReachability.mightReach(startNode.id, endNode.id);
+  }
+
+  /**
+   * Runs Dijkstra's algorithm from the node containing the start data until every reachable node
+   * is settled. The returned tree answers the path, walking times and cost to any destination
+   * without searching again, so it should be reused when several routes share a start node. The
+   * search runs against the snapshot returned by freeze().
+   *
+   * @param start the data item in the starting node for the paths
+   * @return the shortest paths from start to every node it can reach
+   * @throws NoSuchElementException when start data does not correspond to a graph node
+   */
+  public ShortestPathTree<NodeType> shortestPathTree(NodeType start) {
+    return freeze().shortestPathTree(start);
+  }
+
+  /**
+   * Repairs a shortest path tree grown by this graph after the weights of some edges were changed
+   * with insertEdge(), or edges were inserted or removed, instead of growing the tree again. In the
+   * style of Ramalingam and Reps' dynamic algorithm, only the nodes whose paths change are searched
+   * again:
+   * - a tree edge that got slower or was removed cuts off the subtree below it; those nodes forget
+   *   their costs, take the cheapest entering edge from a node that still has one, and are
+   *   settled again by a Dijkstra search that never leaves the subtree unless a cost drops
+   * - an edge that got faster or was inserted only matters if it lowers the cost of its successor,
+   *   and the search from there stops at the nodes whose costs do not drop
+   * The tree's arrays are copied, so the old tree stays valid for anyone still using it. If nodes
+   * were inserted or removed since the tree was grown, the tree is grown again from scratch.
+   *
+   * @param tree  a tree grown by shortestPathTree() on this graph
+   * @param preds the data items in the source nodes of the changed edges
+   * @param succs the data items in the target nodes of the changed edges, in the same order
+   * @return a tree of the shortest paths from the same start node in the graph as it is now
+   * @throws IllegalArgumentException if preds and succs differ in length
+   * @throws NoSuchElementException   if the start node was removed from the graph
+   */
+  public ShortestPathTree<NodeType> repairShortestPathTree(ShortestPathTree<NodeType> tree,
+      List<NodeType> preds, List<NodeType> succs) {
+    if (preds.size() != succs.size()) {
+      throw new IllegalArgumentException("every changed edge needs a source and a target");
+    }
+    return readNodes(() -> repair(tree, preds, succs));
+  }
+
+  /**
+   * Repairs a shortest path tree grown by this graph after the weight of one edge was changed, or
+   * the edge was inserted or removed, the same way as repairShortestPathTree(tree, preds, succs)
+   *
+   * @param tree a tree grown by shortestPathTree() on this graph
+   * @param pred the data item in the source node of the changed edge
+   * @param succ the data item in the target node of the changed edge
+   * @return a tree of the shortest paths from the same start node in the graph as it is now
+   * @throws NoSuchElementException if the start node was removed from the graph
+   */
+  public ShortestPathTree<NodeType> repairShortestPathTree(ShortestPathTree<NodeType> tree,
+      NodeType pred, NodeType succ) {
+    return repairShortestPathTree(tree, List.of(pred), List.of(succ));
+  }
+
+  /**
+   * Helper method that does the work of repairShortestPathTree() on the Node and Edge objects
+   */
+  private ShortestPathTree<NodeType> repair(ShortestPathTree<NodeType> tree,
+      List<NodeType> preds, List<NodeType> succs) {
+    // node ids are never reused, so the same id count and node count mean the same nodes
+    if (tree.dist.length != nodesById.size()
+        || tree.graph.getNodeCount() != super.getNodeCount()) {
+      return snapshot().shortestPathTree(tree.getStart());
+    }
+    double[] dist = tree.dist.clone();
+    int[] parent = tree.parent.clone();
+    double[] parentWeight = tree.parentWeight.clone();
+
+    // sort the changes into tree edges that got slower, and edges that might now be faster
+    List<Edge> fasterEdges = new ArrayList<Edge>();
+    ArrayList<Node> cutRoots = new ArrayList<Node>();
+    for (int i = 0; i < preds.size(); i++) {
+      Node predNode = nodes.getOrDefault(preds.get(i), null);
+      Node succNode = nodes.getOrDefault(succs.get(i), null);
+      if (predNode == null || succNode == null) {
+        continue;
+      }
+      Edge edge = findEdge(predNode, succNode);
+      double weight = edge == null ? Double.POSITIVE_INFINITY : edge.data.doubleValue();
+      if (parent[succNode.id] == predNode.id && weight > parentWeight[succNode.id]) {
+        cutRoots.add(succNode);
+      } else if (edge != null) {
+        fasterEdges.add(edge);
+      }
+    }
+
+    // cut off the subtrees below slower tree edges, walking down through the edges whose
+    // successor's parent is the current node
+    ArrayList<Node> cut = new ArrayList<Node>();
+    for (Node root : cutRoots) {
+      if (dist[root.id] == Double.POSITIVE_INFINITY) {
+        continue; // already cut off below another slower edge
+      }
+      ArrayList<Node> stack = new ArrayList<Node>();
+      stack.add(root);
+      while (!stack.isEmpty()) {
+        Node current = stack.remove(stack.size() - 1);
+        for (Edge edge : current.edgesLeaving) {
+          if (parent[edge.successor.id] == current.id) {
+            stack.add(edge.successor);
+          }
+        }
+        dist[current.id] = Double.POSITIVE_INFINITY;
+        parent[current.id] = -1;
+        parentWeight[current.id] = 0.0;
+        cut.add(current);
+      }
+    }
+
+    // every cut off node starts from its cheapest entering edge from a node that still has a
+    // cost, and every faster edge lowers the cost of its successor if it can
+    LazyBinaryHeap queue = new LazyBinaryHeap(cut.size() + fasterEdges.size());
+    for (Node node : cut) {
+      for (Edge edge : node.edgesEntering) {
+        relax(edge, dist, parent, parentWeight, null);
+      }
+      if (dist[node.id] < Double.POSITIVE_INFINITY) {
+        queue.push(node.id, dist[node.id]);
+      }
+    }
+    for (Edge edge : fasterEdges) {
+      relax(edge, dist, parent, parentWeight, queue);
+    }
+
+    // settle the nodes whose costs changed, skipping copies that were queued before a cheaper one
+    while (!queue.isEmpty()) {
+      double cost = queue.peekKey();
+      Node current = nodesById.get(queue.poll());
+      if (cost > dist[current.id]) {
+        continue;
+      }
+      for (Edge edge : current.edgesLeaving) {
+        relax(edge, dist, parent, parentWeight, queue);
+      }
+    }
+    return new ShortestPathTree<NodeType>(tree.graph, tree.start, dist, parent, parentWeight);
+  }
+
+  /**
+   * Helper method that makes an edge the last hop of its successor's path if that lowers the
+   * successor's cost
+   *
+   * @param edge  the edge to relax
+   * @param queue the queue to push the successor onto when its cost drops, or null
+   */
+  private void relax(Edge edge, double[] dist, int[] parent, double[] parentWeight,
+      LazyBinaryHeap queue) {
+    int from = edge.predecessor.id;
+    int to = edge.successor.id;
+    double weight = edge.data.doubleValue();
+    if (dist[from] + weight < dist[to]) {
+      dist[to] = dist[from] + weight;
+      parent[to] = from;
+      parentWeight[to] = weight;
+      if (queue != null) {
+        queue.push(to, dist[to]);
+      }
+    }
   }
 
   /**
-   * Returns the cost of the path (sum over edge weights) of the shortest path freom the node
-   * containing the start data to the node containing the end data. This method uses Dijkstra's
-   * shortest path algorithm to find this solution.
+   * Computes the cost of the shortest path from every source to every target. One search runs per
+   * source, in parallel on the common ForkJoinPool, against the snapshot returned by freeze().
    *
-   * @param start the data item in the starting node for the path
-   * @param end   the data item in the destination node for the path
-   * @return the cost of the shortest path between these nodes
+   * @param sources the data items in the starting nodes, one row of the matrix per source
+   * @param targets the data items in the destination nodes, one column of the matrix per target
+   * @return matrix[i][j] is the cost from sources.get(i) to targets.get(j), or infinity when there
+   *         is no path between them
+   * @throws NoSuchElementException when any source or target does not correspond to a graph node
    */
-  public double shortestPathCost(NodeType start, NodeType end) {
-    // get shortest path between start and end
-    SearchNode shortestPathSearchNode = computeShortestPath(start, end);
+  public double[][] distanceMatrix(List<NodeType> sources, List<NodeType> targets) {
+    return freeze().distanceMatrix(sources, targets);
+  }
 
-    // return cost of that path
-    return shortestPathSearchNode.cost;
+  /**
+   * Finds the shortest path for each of many pairs of nodes, with one search per distinct start
+   * node, run in parallel against the snapshot returned by freeze().
+   *
+   * @param starts the data items in the starting nodes, one per pair
+   * @param ends   the data items in the destination nodes, in the same order as starts
+   * @return the path, hop weights and total cost of the shortest path of each pair, in the same
+   *         order as starts, or null for the pairs that have no path
+   * @throws IllegalArgumentException when starts and ends have different sizes
+   * @throws NoSuchElementException   when any start or end does not correspond to a graph node
+   */
+  public List<PathResult<NodeType>> shortestPathResults(List<NodeType> starts,
+      List<NodeType> ends) {
+    return freeze().shortestPathResults(starts, ends);
+  }
+
+  /**
+   * Helper method that walks a chain of SearchNodes back to the start and collects the node data
+   * and hop weights along it in start to end order.
+   *
+   * @param endSearchNode the SearchNode for the final node within a path
+   * @param expandedCount the number of nodes expanded by the search, or -1 if not counted
+   * @return the path, hop weights and total cost represented by that chain
+   */
+  protected PathResult<NodeType> toPathResult(SearchNode endSearchNode, int expandedCount) {
+    ArrayList<NodeType> path = new ArrayList<NodeType>();
+    ArrayList<Double> hopCosts = new ArrayList<Double>();
+
+    // collect the chain from end to start, then flip it around
+    for (SearchNode current = endSearchNode; current != null; current = current.predecessor) {
+      path.add(current.node.data);
+      if (current.predecessor != null) {
+        hopCosts.add(current.edgeCost);
+      }
+    }
+    Collections.reverse(path);
+    Collections.reverse(hopCosts);
+    return new PathResult<NodeType>(path, hopCosts, endSearchNode.cost, expandedCount);
   }
 
   // TODO: implement 3+ tests in step 4.1
@@ -473,5 +1539,835 @@ public class DijkstraGraph<NodeType, EdgeType extends Number> extends BaseGraph<
     Assertions.assertEquals(actualPath.get(2), "B");
     Assertions.assertEquals(test.shortestPathCost("A", "B"), 2);
   }
-}
 
+  /**
+   * Tester method to ensure shortestPathResult() returns the same path and cost as
+   * shortestPathData() and shortestPathCost(), along with the weight of every edge on the path
+   */
+  @Test
+  public void test6() {
+    MapADT<String, BaseGraph<String, Integer>.Node> map = new PlaceholderMap<>();
+    DijkstraGraph<String, Integer> test = new DijkstraGraph<String, Integer>(map);
+
+    // insert all of the nodes
+    test.insertNode("A");
+    test.insertNode("B");
+    test.insertNode("C");
+    test.insertNode("D");
+
+    // insert all edges
+    test.insertEdge("A", "B", 4);
+    test.insertEdge("A", "C", 1);
+    test.insertEdge("C", "B", 1);
+    test.insertEdge("B", "D", 3);
+
+    PathResult<String> result = test.shortestPathResult("A", "D");
+
+    // tests that the path and cost match the separate queries
+    Assertions.assertEquals(test.shortestPathData("A", "D"), result.getPath());
+    Assertions.assertEquals(test.shortestPathCost("A", "D"), result.getTotalCost());
+
+    // tests that each hop weight matches the edge between those two nodes
+    Assertions.assertEquals(result.getPath().size() - 1, result.getHopCosts().size());
+    for (int i = 0; i < result.getHopCosts().size(); i++) {
+      Assertions.assertEquals(test.getEdge(result.getPath().get(i), result.getPath().get(i + 1))
+          .doubleValue(), result.getHopCosts().get(i));
+    }
+  }
+
+  /**
+   * Tester method to ensure that a frozen snapshot returns the same paths and costs as the graph it
+   * was taken from, and that changing the graph stops queries from using an outdated snapshot
+   */
+  @Test
+  public void test7() {
+    MapADT<String, BaseGraph<String, Integer>.Node> map = new PlaceholderMap<>();
+    DijkstraGraph<String, Integer> test = new DijkstraGraph<String, Integer>(map);
+
+    // insert all of the nodes
+    test.insertNode("A");
+    test.insertNode("B");
+    test.insertNode("C");
+    test.insertNode("D");
+
+    // insert all edges
+    test.insertEdge("A", "B", 4);
+    test.insertEdge("A", "C", 1);
+    test.insertEdge("C", "B", 1);
+    test.insertEdge("B", "D", 3);
+
+    // tests that the snapshot agrees with the graph
+    FrozenGraph<String> frozen = test.freeze();
+    Assertions.assertTrue(test.isFrozen());
+    Assertions.assertEquals(4, frozen.getNodeCount());
+    Assertions.assertEquals(4, frozen.getEdgeCount());
+    Assertions.assertEquals(List.of("A", "C", "B", "D"), frozen.shortestPathData("A", "D"));
+    Assertions.assertEquals(5.0, frozen.shortestPathCost("A", "D"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> frozen.shortestPathCost("D", "A"));
+
+    // tests that a change to the graph is seen by the next query
+    test.insertEdge("A", "D", 2);
+    Assertions.assertFalse(test.isFrozen());
+    Assertions.assertEquals(2.0, test.shortestPathCost("A", "D"));
+    Assertions.assertEquals(5.0, frozen.shortestPathCost("A", "D"));
+  }
+
+  /**
+   * Tester method to ensure that an A* search guided by building coordinates returns the same path
+   * and cost as Dijkstra's algorithm, while expanding fewer nodes
+   */
+  @Test
+  public void test8() {
+    MapADT<String, BaseGraph<String, Double>.Node> map = new PlaceholderMap<>();
+    DijkstraGraph<String, Double> test = new DijkstraGraph<String, Double>(map);
+    CoordinateHeuristic<String> heuristic = new CoordinateHeuristic<String>(1.0);
+
+    // build a 10 by 10 grid where each edge costs its length
+    for (int x = 0; x < 10; x++) {
+      for (int y = 0; y < 10; y++) {
+        test.insertNode(x + "," + y);
+        heuristic.setCoordinates(x + "," + y, x, y);
+      }
+    }
+    for (int x = 0; x < 10; x++) {
+      for (int y = 0; y < 10; y++) {
+        if (x < 9) {
+          test.insertEdge(x + "," + y, (x + 1) + "," + y, 1.0);
+          test.insertEdge((x + 1) + "," + y, x + "," + y, 1.0);
+        }
+        if (y < 9) {
+          test.insertEdge(x + "," + y, x + "," + (y + 1), 1.0);
+          test.insertEdge(x + "," + (y + 1), x + "," + y, 1.0);
+        }
+      }
+    }
+
+    // search from the middle of the grid toward one corner
+    PathResult<String> dijkstra = test.shortestPathResult("5,5", "9,9", Heuristic.zero());
+    PathResult<String> aStar = test.shortestPathResult("5,5", "9,9", heuristic);
+
+    // tests that both searches agree on the cost, and that A* expanded fewer nodes
+    Assertions.assertEquals(test.shortestPathCost("5,5", "9,9"), aStar.getTotalCost());
+    Assertions.assertEquals(dijkstra.getTotalCost(), aStar.getTotalCost());
+    Assertions.assertEquals(9, aStar.getPath().size());
+    Assertions.assertTrue(aStar.getExpandedCount() < dijkstra.getExpandedCount());
+  }
+
+  /**
+   * Tester method to ensure that the bidirectional search finds the same cost as Dijkstra's
+   * algorithm between every pair of nodes in the graph from class, and still throws a
+   * NoSuchElementException when there is no path
+   */
+  @Test
+  public void test9() {
+    MapADT<String, BaseGraph<String, Integer>.Node> map = new PlaceholderMap<>();
+    DijkstraGraph<String, Integer> test = new DijkstraGraph<String, Integer>(map);
+    String[] names = {"A", "B", "D", "E", "F", "G", "H", "I", "L", "M"};
+    for (String name : names) {
+      test.insertNode(name);
+    }
+    test.insertEdge("A", "B", 1);
+    test.insertEdge("A", "M", 5);
+    test.insertEdge("A", "H", 8);
+    test.insertEdge("B", "M", 3);
+    test.insertEdge("D", "A", 7);
+    test.insertEdge("D", "G", 2);
+    test.insertEdge("F", "G", 9);
+    test.insertEdge("G", "L", 7);
+    test.insertEdge("H", "B", 6);
+    test.insertEdge("H", "I", 2);
+    test.insertEdge("I", "D", 1);
+    test.insertEdge("I", "H", 2);
+    test.insertEdge("I", "L", 5);
+    test.insertEdge("M", "E", 3);
+    test.insertEdge("M", "F", 4);
+
+    // path from class between D and I
+    PathResult<String> result = test.shortestPathResultBidirectional("D", "I");
+    Assertions.assertEquals(List.of("D", "A", "H", "I"), result.getPath());
+    Assertions.assertEquals(List.of(7.0, 8.0, 2.0), result.getHopCosts());
+    Assertions.assertEquals(17.0, result.getTotalCost());
+
+    // compare against Dijkstra's algorithm for every pair of nodes
+    for (String start : names) {
+      for (String end : names) {
+        try {
+          double expected = test.shortestPathCost(start, end);
+          Assertions.assertEquals(expected,
+              test.shortestPathResultBidirectional(start, end).getTotalCost());
+        } catch (NoSuchElementException e) {
+          Assertions.assertThrows(NoSuchElementException.class,
+              () -> test.shortestPathResultBidirectional(start, end));
+        }
+      }
+    }
+  }
+
+  /**
+   * Tester method to ensure that the open addressing maps follow the MapADT rules through many
+   * insertions and removals, and that a graph stored in one finds the same paths as before
+   */
+  @Test
+  public void test10() {
+    OpenAddressingMap<Integer, String> map = new OpenAddressingMap<Integer, String>();
+    ObjectDoubleMap<Integer> doubles = new ObjectDoubleMap<Integer>(100);
+    Assertions.assertEquals(256, doubles.getCapacity());
+
+    // insert 1000 keys, then remove every third one, so many probe runs are shifted back
+    for (int i = 0; i < 1000; i++) {
+      map.put(i * 64, "v" + i);
+      doubles.put(i * 64, i * 0.5);
+    }
+    for (int i = 0; i < 1000; i += 3) {
+      Assertions.assertEquals("v" + i, map.remove(i * 64));
+      Assertions.assertEquals(i * 0.5, doubles.remove(i * 64));
+    }
+    for (int i = 0; i < 1000; i++) {
+      boolean kept = i % 3 != 0;
+      Assertions.assertEquals(kept, map.containsKey(i * 64));
+      Assertions.assertEquals(kept ? "v" + i : null, map.getOrDefault(i * 64, null));
+      Assertions.assertEquals(kept ? i * 0.5 : -1.0, doubles.getDouble(i * 64, -1.0));
+    }
+    Assertions.assertEquals(666, map.getSize());
+    Assertions.assertEquals(666, doubles.getSize());
+    Assertions.assertTrue(map.getCapacity() >= 1000);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(64, "again"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> map.get(0));
+    Assertions.assertThrows(NoSuchElementException.class, () -> doubles.remove(0));
+    Assertions.assertThrows(NullPointerException.class, () -> map.put(null, "null"));
+    doubles.set(64, 7.0);
+    Assertions.assertEquals(7.0, doubles.get(64));
+
+    // the graph from class, stored in an open addressing map
+    DijkstraGraph<String, Integer> test =
+        new DijkstraGraph<String, Integer>(new OpenAddressingMap<>());
+    for (String name : new String[] {"A", "B", "D", "H", "I", "M"}) {
+      test.insertNode(name);
+    }
+    test.insertEdge("A", "B", 1);
+    test.insertEdge("A", "M", 5);
+    test.insertEdge("A", "H", 8);
+    test.insertEdge("B", "M", 3);
+    test.insertEdge("D", "A", 7);
+    test.insertEdge("H", "B", 6);
+    test.insertEdge("H", "I", 2);
+    test.insertEdge("I", "D", 1);
+    test.insertEdge("I", "H", 2);
+    Assertions.assertEquals(List.of("D", "A", "H", "I"), test.shortestPathData("D", "I"));
+    Assertions.assertEquals(17.0, test.shortestPathCost("D", "I"));
+  }
+
+  /**
+   * Tester method to ensure that once a graph is frozen, repeated shortest path cost queries on a
+   * thread all search with that thread's one QueryContext and frontier, that once warmed up they
+   * allocate no memory, measured with the JVM's per-thread allocation counter, that another
+   * thread gets a context of its own, and that other snapshots share the thread's context
+   */
+  @Test
+  public void test11() throws InterruptedException {
+    DijkstraGraph<String, Double> test =
+        new DijkstraGraph<String, Double>(new OpenAddressingMap<>());
+    // build a 20 by 20 grid with uneven weights
+    for (int x = 0; x < 20; x++) {
+      for (int y = 0; y < 20; y++) {
+        test.insertNode(x + "," + y);
+      }
+    }
+    for (int x = 0; x < 20; x++) {
+      for (int y = 0; y < 20; y++) {
+        if (x < 19) {
+          test.insertEdge(x + "," + y, (x + 1) + "," + y, 1.0 + (x * y) % 7);
+          test.insertEdge((x + 1) + "," + y, x + "," + y, 2.0 + (x + y) % 5);
+        }
+        if (y < 19) {
+          test.insertEdge(x + "," + y, x + "," + (y + 1), 1.5 + (x + 2 * y) % 3);
+          test.insertEdge(x + "," + (y + 1), x + "," + y, 1.0 + (3 * x + y) % 4);
+        }
+      }
+    }
+    FrozenGraph<String> frozen = test.freeze();
+
+    String[] starts = new String[20];
+    String[] ends = new String[20];
+    for (int i = 0; i < 20; i++) {
+      starts[i] = i + ",0";
+      ends[i] = "19," + i;
+    }
+    QueryContext context = frozen.queryContext();
+    Frontier queue = context.queue();
+    for (int i = 0; i < 2000; i++) {
+      String start = starts[i % 20];
+      String end = ends[(i * 7) % 20];
+      double cost = test.shortestPathCost(start, end);
+      if (i < 20) {
+        Assertions.assertEquals(
+            test.shortestPathResult(start, end, Heuristic.zero()).getTotalCost(), cost, 1e-9);
+      }
+      Assertions.assertSame(context, frozen.queryContext());
+    }
+    Assertions.assertSame(queue, context.queue());
+
+    // once warmed up by the queries above, queries allocate nothing, measured with the JVM's
+    // per-thread allocation counter where it has one. The bound allows a few bytes per query for
+    // reading the counter and for the JIT, far less than one scratch array for this graph.
+    java.lang.management.ThreadMXBean threads =
+        java.lang.management.ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+      com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+      long threadId = Thread.currentThread().getId();
+      int queryCount = 10000;
+      double checksum = 0.0;
+      long before = counter.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < queryCount; i++) {
+        checksum += test.shortestPathCost(starts[i % 20], ends[(i * 7) % 20]);
+      }
+      long allocated = counter.getThreadAllocatedBytes(threadId) - before;
+      Assertions.assertTrue(checksum > 0);
+      Assertions.assertTrue(allocated < 16L * queryCount,
+          "allocated " + allocated + " bytes in " + queryCount + " queries");
+    }
+
+    // scratch state is never shared between threads
+    List<QueryContext> otherContext = new ArrayList<>();
+    Thread other = new Thread(() -> otherContext.add(frozen.queryContext()));
+    other.start();
+    other.join();
+    Assertions.assertNotSame(context, otherContext.get(0));
+
+    // the snapshots a thread searches share its context, which grows for a larger snapshot and is
+    // then used for the smaller one again
+    double cost = frozen.shortestPathCost(starts[0], ends[0]);
+    test.insertNode("20,0");
+    FrozenGraph<String> larger = test.freeze();
+    QueryContext grown = larger.queryContext();
+    Assertions.assertNotSame(context, grown);
+    Assertions.assertEquals(401, grown.getIdCount());
+    Assertions.assertSame(grown, frozen.queryContext());
+    Assertions.assertEquals(cost, frozen.shortestPathCost(starts[0], ends[0]));
+    Assertions.assertEquals(cost, larger.shortestPathCost(starts[0], ends[0]));
+    Assertions.assertSame(grown, test.freeze().queryContext());
+  }
+
+  /**
+   * Tester method to ensure that the indexed d-ary heap keeps one entry per id when keys are
+   * decreased, and that searches with every frontier find the same costs as the unfrozen graph
+   */
+  @Test
+  public void test12() {
+    IndexedDaryHeap heap = new IndexedDaryHeap(10, 4);
+    heap.offer(3, 5.0);
+    heap.offer(7, 2.0);
+    heap.offer(3, 1.0); // decrease-key moves id 3 in place
+    heap.offer(7, 9.0); // a larger key leaves id 7 unchanged
+    Assertions.assertEquals(2, heap.size());
+    Assertions.assertEquals(3, heap.poll());
+    Assertions.assertEquals(2.0, heap.peekKey());
+    Assertions.assertEquals(7, heap.poll());
+    Assertions.assertTrue(heap.isEmpty());
+
+    // the graph from class
+    DijkstraGraph<String, Integer> test =
+        new DijkstraGraph<String, Integer>(new OpenAddressingMap<>());
+    String[] names = {"A", "B", "D", "E", "F", "G", "H", "I", "L", "M"};
+    for (String name : names) {
+      test.insertNode(name);
+    }
+    test.insertEdge("A", "B", 1);
+    test.insertEdge("A", "M", 5);
+    test.insertEdge("A", "H", 8);
+    test.insertEdge("B", "M", 3);
+    test.insertEdge("D", "A", 7);
+    test.insertEdge("D", "G", 2);
+    test.insertEdge("F", "G", 9);
+    test.insertEdge("G", "L", 7);
+    test.insertEdge("H", "B", 6);
+    test.insertEdge("H", "I", 2);
+    test.insertEdge("I", "D", 1);
+    test.insertEdge("I", "H", 2);
+    test.insertEdge("I", "L", 5);
+    test.insertEdge("M", "E", 3);
+    test.insertEdge("M", "F", 4);
+
+    FrozenGraph<String> frozen = test.freeze();
+    List<FrozenGraph<String>> snapshots = List.of(frozen.withFrontier(Frontier.Type.LAZY_BINARY, 2),
+        frozen.withFrontier(Frontier.Type.INDEXED_DARY, 2),
+        frozen.withFrontier(Frontier.Type.INDEXED_DARY, 4),
+        frozen.withFrontier(Frontier.Type.INDEXED_DARY, 8));
+    test.insertNode("unfrozen"); // queries on test now search the Node and Edge objects again
+    for (String start : names) {
+      for (String end : names) {
+        double expected;
+        try {
+          expected = test.shortestPathCost(start, end);
+        } catch (NoSuchElementException e) {
+          expected = Double.POSITIVE_INFINITY;
+        }
+        for (FrozenGraph<String> snapshot : snapshots) {
+          double actual;
+          try {
+            actual = snapshot.shortestPathCost(start, end);
+          } catch (NoSuchElementException e) {
+            actual = Double.POSITIVE_INFINITY;
+          }
+          Assertions.assertEquals(expected, actual);
+        }
+      }
+    }
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> test.setFrontier(Frontier.Type.INDEXED_DARY, 1));
+  }
+
+  /**
+   * Tester method to ensure that a NodeDictionary gives data dense ids in the order it is added,
+   * that snapshots look nodes up through one, and that edges are still found by node id after
+   * nodes are removed
+   */
+  @Test
+  public void test13() {
+    NodeDictionary<String> dictionary = new NodeDictionary<String>(2);
+    Assertions.assertEquals(0, dictionary.add("A"));
+    Assertions.assertEquals(1, dictionary.add("B"));
+    Assertions.assertEquals(0, dictionary.add(new String("A")));
+    for (int i = 0; i < 100; i++) {
+      dictionary.add("C" + i); // grows the table past its starting size
+    }
+    Assertions.assertEquals(102, dictionary.getSize());
+    Assertions.assertEquals(101, dictionary.idOf("C99"));
+    Assertions.assertEquals(-1, dictionary.idOf("D"));
+    Assertions.assertEquals("B", dictionary.get(1));
+    Assertions.assertEquals("C0", dictionary.asList().get(2));
+    NodeDictionary<String> wrapped = new NodeDictionary<String>(new String[] {"X", null, "Y"});
+    Assertions.assertEquals(2, wrapped.getSize());
+    Assertions.assertEquals(2, wrapped.idOf("Y"));
+    Assertions.assertFalse(wrapped.contains(null));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new NodeDictionary<String>(new String[] {"X", "X"}));
+
+    DijkstraGraph<String, Integer> test =
+        new DijkstraGraph<String, Integer>(new PlaceholderMap<>());
+    for (String name : new String[] {"A", "B", "C", "D"}) {
+      test.insertNode(name);
+    }
+    test.insertEdge("A", "B", 1);
+    test.insertEdge("A", "C", 4);
+    test.insertEdge("B", "D", 2);
+    test.insertEdge("C", "D", 1);
+    test.removeNode("B");
+    Assertions.assertTrue(test.containsEdge("A", "C"));
+    Assertions.assertFalse(test.containsEdge("A", "B"));
+    Assertions.assertFalse(test.containsEdge("C", "A"));
+    Assertions.assertEquals(4, test.getEdge("A", "C"));
+    Assertions.assertEquals(2, test.getEdgeCount());
+    FrozenGraph<String> frozen = test.freeze();
+    Assertions.assertEquals(2, frozen.getEdgeCount());
+    Assertions.assertFalse(frozen.containsNode("B"));
+    Assertions.assertTrue(frozen.containsNode(new String("D")));
+    Assertions.assertEquals(5.0, frozen.shortestPathCost("A", "D"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> frozen.getEdge("A", "B"));
+    // an edge from a removed node to itself is only counted once
+    test.insertNode("E");
+    test.insertEdge("E", "E", 1);
+    test.insertEdge("E", "A", 1);
+    test.insertEdge("A", "E", 1);
+    Assertions.assertEquals(5, test.getEdgeCount());
+    test.removeNode("E");
+    Assertions.assertEquals(2, test.getEdgeCount());
+    Assertions.assertEquals(2, test.freeze().getEdgeCount());
+  }
+
+  /**
+   * Tester method to ensure that a graph with an edge index finds, updates and removes the same
+   * edges as one without, around a hub node with many edges
+   */
+  @Test
+  public void test14() {
+    DijkstraGraph<String, Integer> indexed =
+        new DijkstraGraph<String, Integer>(new OpenAddressingMap<>());
+    DijkstraGraph<String, Integer> scanned =
+        new DijkstraGraph<String, Integer>(new PlaceholderMap<>());
+    indexed.setEdgeIndex(true);
+    Assertions.assertTrue(indexed.hasEdgeIndex());
+    Assertions.assertFalse(scanned.hasEdgeIndex());
+    for (DijkstraGraph<String, Integer> graph : List.of(indexed, scanned)) {
+      graph.insertNode("hub");
+      for (int i = 0; i < 1000; i++) {
+        graph.insertNode("stop" + i);
+        graph.insertEdge("hub", "stop" + i, i);
+        graph.insertEdge("stop" + i, "hub", i);
+      }
+      graph.insertEdge("hub", "stop7", 70); // updates the existing edge
+      Assertions.assertTrue(graph.removeEdge("stop9", "hub"));
+      Assertions.assertFalse(graph.removeEdge("stop9", "hub"));
+    }
+    for (int i = 0; i < 1000; i++) {
+      Assertions.assertEquals(scanned.containsEdge("stop" + i, "hub"),
+          indexed.containsEdge("stop" + i, "hub"));
+      Assertions.assertEquals(scanned.getEdge("hub", "stop" + i),
+          indexed.getEdge("hub", "stop" + i));
+    }
+    Assertions.assertEquals(scanned.getEdgeCount(), indexed.getEdgeCount());
+    Assertions.assertEquals(70, indexed.getEdge("hub", "stop7"));
+    Assertions.assertFalse(indexed.containsEdge("stop9", "hub"));
+    Assertions.assertFalse(indexed.containsEdge("hub", "nowhere"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> indexed.getEdge("stop9", "hub"));
+
+    // the index forgets the edges of removed nodes, and can be built for an existing graph
+    indexed.removeNode("stop3");
+    indexed.insertNode("stop3");
+    Assertions.assertFalse(indexed.containsEdge("hub", "stop3"));
+    scanned.setEdgeIndex(true);
+    Assertions.assertTrue(scanned.containsEdge("hub", "stop999"));
+    Assertions.assertFalse(scanned.containsEdge("stop9", "hub"));
+    Assertions.assertEquals(5.0, scanned.shortestPathCost("stop5", "stop0"));
+  }
+
+  /**
+   * Tests that in concurrent mode, queries from a thread pool keep getting consistent answers
+   * while another thread changes the graph, and that the changes inside one edit() are published
+   * together
+   */
+  @Test
+  public void test15() throws Exception {
+    DijkstraGraph<String, Integer> test =
+        new DijkstraGraph<String, Integer>(new PlaceholderMap<>());
+    test.insertNode("A");
+    test.insertNode("B");
+    test.insertNode("C");
+    test.insertNode("D");
+    test.insertEdge("A", "B", 1);
+    test.insertEdge("B", "D", 1);
+    test.insertEdge("A", "C", 2);
+    test.insertEdge("C", "D", 2);
+    test.setConcurrent(true);
+    Assertions.assertTrue(test.isConcurrent());
+
+    // readers only ever see the B route open (cost 2) or closed (cost 4)
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> readers = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        readers.add(pool.submit(() -> {
+          int queries = 0;
+          for (; queries < 2000; queries++) {
+            List<String> path = test.shortestPathData("A", "D");
+            double cost = test.shortestPathCost("A", "D");
+            Assertions.assertTrue(path.equals(List.of("A", "B", "D"))
+                || path.equals(List.of("A", "C", "D")));
+            Assertions.assertTrue(cost == 2.0 || cost == 4.0);
+          }
+          return queries;
+        }));
+      }
+      for (int i = 0; i < 200; i++) {
+        if (i % 2 == 0) {
+          test.removeEdge("B", "D");
+        } else {
+          test.insertEdge("B", "D", 1);
+        }
+      }
+      for (Future<Integer> reader : readers) {
+        Assertions.assertEquals(2000, reader.get());
+      }
+    } finally {
+      pool.shutdown();
+    }
+    Assertions.assertEquals(2.0, test.shortestPathCost("A", "D"));
+
+    // changes made inside edit() are seen by other threads once all of them are done, while the
+    // thread making them sees every one of them right away, in node and edge queries alike
+    ExecutorService other = Executors.newSingleThreadExecutor();
+    try {
+      test.edit(() -> {
+        test.removeEdge("A", "B");
+        test.insertEdge("A", "D", 9);
+        test.insertNode("E");
+        Assertions.assertEquals(4.0, test.shortestPathCost("A", "D"));
+        Assertions.assertTrue(test.containsEdge("A", "D"));
+        Assertions.assertFalse(test.containsEdge("A", "B"));
+        Assertions.assertTrue(test.containsNode("E"));
+        Assertions.assertEquals(5, test.getNodeCount());
+        Assertions.assertEquals(4, test.getEdgeCount());
+        try {
+          Assertions.assertEquals(2.0, other.submit(() -> test.shortestPathCost("A", "D")).get());
+          Assertions.assertFalse(other.submit(() -> test.containsNode("E")).get());
+          Assertions.assertEquals(4, other.submit(() -> test.getNodeCount()).get());
+        } catch (Exception e) {
+          throw new AssertionError(e);
+        }
+      });
+    } finally {
+      other.shutdown();
+    }
+    Assertions.assertTrue(test.containsNode("E"));
+    Assertions.assertEquals(4.0, test.shortestPathCost("A", "D"));
+    Assertions.assertEquals(List.of("A", "C", "D"), test.shortestPathData("A", "D"));
+    test.removeNode("E");
+    long published = test.getModCount();
+    test.insertNode("A"); // not a change, so nothing new is published
+    Assertions.assertEquals(published, test.getModCount());
+
+    test.setConcurrent(false);
+    Assertions.assertFalse(test.isConcurrent());
+    test.removeEdge("C", "D");
+    Assertions.assertEquals(9.0, test.shortestPathCost("A", "D"));
+  }
+
+  /**
+   * Tests that repairing a shortest path tree after random edge weight increases, decreases,
+   * insertions and removals gives the same costs as growing the tree again, one change at a time
+   * and in batches
+   */
+  @Test
+  public void test16() {
+    DijkstraGraph<Integer, Double> test =
+        new DijkstraGraph<Integer, Double>(new OpenAddressingMap<>());
+    java.util.Random random = new java.util.Random(23);
+    int nodeCount = 200;
+    for (int i = 0; i < nodeCount; i++) {
+      test.insertNode(i);
+    }
+    for (int i = 0; i < 4 * nodeCount; i++) {
+      test.insertEdge(random.nextInt(nodeCount), random.nextInt(nodeCount),
+          (double) (1 + random.nextInt(50)));
+    }
+    ShortestPathTree<Integer> tree = test.shortestPathTree(0);
+    for (int round = 0; round < 300; round++) {
+      int changeCount = round < 200 ? 1 : 1 + random.nextInt(8);
+      List<Integer> preds = new ArrayList<>();
+      List<Integer> succs = new ArrayList<>();
+      for (int c = 0; c < changeCount; c++) {
+        // mostly change the edges of the current tree, since those are the hard cases
+        int succ = random.nextInt(nodeCount);
+        int pred = tree.isReachable(succ) && succ != 0 && random.nextBoolean()
+            ? tree.getPath(succ).get(tree.getPath(succ).size() - 2)
+            : random.nextInt(nodeCount);
+        if (random.nextInt(4) == 0) {
+          test.removeEdge(pred, succ);
+        } else {
+          test.insertEdge(pred, succ, (double) (1 + random.nextInt(50)));
+        }
+        preds.add(pred);
+        succs.add(succ);
+      }
+      tree = test.repairShortestPathTree(tree, preds, succs);
+      ShortestPathTree<Integer> grown = test.shortestPathTree(0);
+      for (int node = 0; node < nodeCount; node++) {
+        Assertions.assertEquals(grown.isReachable(node), tree.isReachable(node));
+        if (grown.isReachable(node)) {
+          Assertions.assertEquals(grown.totalPathCost(node), tree.totalPathCost(node), 1e-9);
+          // the repaired path must really exist and add up to its cost
+          List<Integer> path = tree.getPath(node);
+          List<Double> hops = tree.getWalkingTimes(node);
+          double total = 0.0;
+          for (int i = 0; i < hops.size(); i++) {
+            Assertions.assertEquals(hops.get(i), test.getEdge(path.get(i), path.get(i + 1)));
+            total += hops.get(i);
+          }
+          Assertions.assertEquals(tree.totalPathCost(node), total, 1e-9);
+        }
+      }
+    }
+
+    // after a new node the tree is grown again instead
+    test.insertNode(nodeCount);
+    test.insertEdge(0, nodeCount, 1.0);
+    Assertions.assertEquals(1.0,
+        test.repairShortestPathTree(tree, 0, nodeCount).totalPathCost(nodeCount));
+  }
+
+  /**
+   * Tests that the reachability check never rules out a pair that has a path, rules out pairs in
+   * separate parts of the graph before any search runs, is found again after an edge joins two
+   * parts, and is carried over to published snapshots when only an edge weight changes, and that
+   * searches with a cost limit only find paths cheaper than the limit
+   */
+  @Test
+  public void test17() {
+    DijkstraGraph<Integer, Double> test =
+        new DijkstraGraph<Integer, Double>(new OpenAddressingMap<>());
+    java.util.Random random = new java.util.Random(24);
+    int nodeCount = 300;
+    for (int i = 0; i < nodeCount; i++) {
+      test.insertNode(i);
+    }
+    for (int i = 0; i < nodeCount + nodeCount / 4; i++) {
+      test.insertEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), 1.0);
+    }
+    int[] starts = new int[20];
+    boolean[][] reachable = new boolean[starts.length][nodeCount];
+    for (int s = 0; s < starts.length; s++) {
+      starts[s] = random.nextInt(nodeCount);
+      ShortestPathTree<Integer> tree = test.shortestPathTree(starts[s]);
+      for (int node = 0; node < nodeCount; node++) {
+        reachable[s][node] = tree.isReachable(node);
+      }
+    }
+    // once on the frozen snapshot, and once on the Node and Edge objects after a new node thaws
+    // the graph
+    for (int round = 0; round < 2; round++) {
+      if (round == 1) {
+        test.insertNode(nodeCount);
+        Assertions.assertFalse(test.isFrozen());
+      }
+      int ruledOut = 0;
+      for (int s = 0; s < starts.length; s++) {
+        for (int node = 0; node < nodeCount; node++) {
+          boolean mightReach = test.mightReach(starts[s], node);
+          if (reachable[s][node]) {
+            Assertions.assertTrue(mightReach);
+          } else if (!mightReach) {
+            ruledOut++;
+          }
+        }
+      }
+      Assertions.assertTrue(ruledOut > 0);
+    }
+    Assertions.assertFalse(test.mightReach(0, nodeCount + 1));
+
+    // two rings with edges both ways can only reach within themselves
+    DijkstraGraph<Integer, Double> islands =
+        new DijkstraGraph<Integer, Double>(new OpenAddressingMap<>());
+    for (int i = 0; i < 10; i++) {
+      islands.insertNode(i);
+    }
+    for (int i = 0; i < 10; i++) {
+      int next = i / 5 * 5 + (i + 1) % 5;
+      islands.insertEdge(i, next, 1.0);
+      islands.insertEdge(next, i, 1.0);
+    }
+    Assertions.assertTrue(islands.mightReach(0, 3));
+    Assertions.assertFalse(islands.mightReach(0, 7));
+    Assertions.assertFalse(islands.mightReach(7, 0));
+    Assertions.assertThrows(NoSuchElementException.class, () -> islands.shortestPathCost(0, 7));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> islands.shortestPathResult(0, 7, Heuristic.zero()));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> islands.shortestPathResultBidirectional(0, 7));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> islands.freeze().shortestPathCost(0, 7));
+
+    // a bridge one way joins the rings in that direction only
+    islands.insertEdge(4, 5, 1.0);
+    Assertions.assertTrue(islands.mightReach(0, 7));
+    Assertions.assertFalse(islands.mightReach(7, 0));
+    Assertions.assertEquals(4.0, islands.shortestPathCost(0, 7));
+    Assertions.assertEquals(4.0, islands.freeze().shortestPathCost(0, 7));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> islands.shortestPathResultBidirectional(7, 0));
+    // a search with a limit only finds paths that cost less than it
+    Assertions.assertEquals(4.0, islands.freeze().shortestPathCost(0, 7, 4.5));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY,
+        islands.freeze().shortestPathCost(0, 7, 4.0));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY,
+        islands.freeze().shortestPathCost(7, 0, 100.0));
+    Assertions.assertEquals(0.0, islands.freeze().shortestPathCost(3, 3, 1.0));
+
+    // in concurrent mode each published snapshot gets its index from the thread making the
+    // change, and keeps the previous one when only a weight changed
+    islands.setConcurrent(true);
+    ReachabilityIndex index = islands.freeze().reachabilityIndex();
+    islands.insertEdge(4, 5, 2.0);
+    Assertions.assertSame(index, islands.freeze().reachabilityIndex());
+    Assertions.assertEquals(5.0, islands.shortestPathCost(0, 7));
+    islands.insertEdge(7, 0, 1.0);
+    Assertions.assertNotSame(index, islands.freeze().reachabilityIndex());
+    Assertions.assertTrue(islands.mightReach(7, 0));
+  }
+
+  /**
+   * Tests that answering a batch of pairs grouped by start node gives the same paths, in the same
+   * order, as searching for each pair on its own, with null for the pairs that have no path
+   */
+  @Test
+  public void test18() {
+    DijkstraGraph<Integer, Double> test =
+        new DijkstraGraph<Integer, Double>(new OpenAddressingMap<>());
+    java.util.Random random = new java.util.Random(25);
+    int nodeCount = 300;
+    for (int i = 0; i < nodeCount; i++) {
+      test.insertNode(i);
+    }
+    for (int i = 0; i < 2 * nodeCount; i++) {
+      test.insertEdge(random.nextInt(nodeCount), random.nextInt(nodeCount),
+          (double) (1 + random.nextInt(50)));
+    }
+    List<Integer> starts = new ArrayList<>();
+    List<Integer> ends = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      // few distinct start nodes, so most groups have many destinations
+      starts.add(random.nextInt(20));
+      ends.add(random.nextInt(nodeCount));
+    }
+    List<PathResult<Integer>> results = test.shortestPathResults(starts, ends);
+    Assertions.assertEquals(starts.size(), results.size());
+    int missing = 0;
+    for (int i = 0; i < starts.size(); i++) {
+      PathResult<Integer> expected;
+      try {
+        expected = test.shortestPathResult(starts.get(i), ends.get(i), Heuristic.zero());
+      } catch (NoSuchElementException e) {
+        expected = null;
+      }
+      if (expected == null) {
+        Assertions.assertNull(results.get(i));
+        missing++;
+      } else {
+        Assertions.assertEquals(expected.getTotalCost(), results.get(i).getTotalCost(), 1e-9);
+        List<Integer> path = results.get(i).getPath();
+        Assertions.assertEquals(starts.get(i), path.get(0));
+        Assertions.assertEquals(ends.get(i), path.get(path.size() - 1));
+      }
+    }
+    Assertions.assertTrue(missing > 0);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> test.shortestPathResults(List.of(0, 1), List.of(2)));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> test.shortestPathResults(List.of(0), List.of(nodeCount)));
+  }
+
+  /**
+   * Tests that several threads reading a freshly loaded graph at once, which makes them all need
+   * its Node and Edge objects, all see the whole graph
+   */
+  @Test
+  public void test19() throws Exception {
+    DijkstraGraph<Integer, Double> built =
+        new DijkstraGraph<Integer, Double>(new OpenAddressingMap<>());
+    java.util.Random random = new java.util.Random(19);
+    int nodeCount = 2000;
+    for (int i = 0; i < nodeCount; i++) {
+      built.insertNode(i);
+    }
+    for (int i = 0; i < nodeCount; i++) {
+      built.insertEdge(i, (i + 1) % nodeCount, 1.0);
+      built.insertEdge(i, random.nextInt(nodeCount), (double) (1 + random.nextInt(50)));
+    }
+    FrozenGraph<Integer> snapshot = built.freeze();
+    double expected = snapshot.shortestPathCost(0, nodeCount - 1);
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      for (int round = 0; round < 20; round++) {
+        DijkstraGraph<Integer, Double> loaded =
+            new DijkstraGraph<Integer, Double>(new OpenAddressingMap<>());
+        loaded.load(snapshot);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+          readers.add(pool.submit(() -> {
+            Assertions.assertEquals(expected,
+                loaded.shortestPathResultBidirectional(0, nodeCount - 1).getTotalCost());
+            Assertions.assertTrue(loaded.containsEdge(nodeCount - 1, 0));
+            Assertions.assertTrue(loaded.containsNode(nodeCount / 2));
+            Assertions.assertEquals(nodeCount, loaded.getNodeCount());
+          }));
+        }
+        for (Future<?> reader : readers) {
+          reader.get();
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,364 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * This class reads the paths out of a .DOT file quickly enough that loading a large file is
+ * limited by how fast the file can be read. The file is memory mapped and split into chunks that
+ * end at line breaks, and the chunks are parsed in parallel on the common ForkJoinPool by a
+ * scanner that works directly on the file's bytes, instead of decoding lines and matching a regex
+ * against each of them.
+ *
+ * A line is read as a path exactly when Backend's regex, \s*"([^"]*)" -- "([^"]*)"
+ * \[seconds=([0-9.]+)\];, finds a match in it, and the names and walking time are the ones that
+ * match would give. Names are decoded as UTF-8, and each distinct name is given a dense int id by
+ * a NodeDictionary, so the paths in the result are pairs of ids instead of pairs of names. The
+ * result lists every path in file order, including repeated ones, so the caller can apply the same
+ * rules as a line by line read. Reader sources, which cannot be mapped, are scanned line by line
+ * with the same scanner.
+ */
+public class DotFileParser {
+
+  // chunks are never made smaller than this, so small files are parsed on the calling thread
+  private static final int MIN_CHUNK_SIZE = 1 << 20;
+  // a single mapping cannot be larger than 2 GB, so chunks are kept well below that
+  private static final int MAX_CHUNK_SIZE = 1 << 30;
+  // exact powers of ten for turning decimal walking times into doubles without rounding twice
+  private static final double[] POWERS_OF_TEN = new double[23];
+
+  static {
+    POWERS_OF_TEN[0] = 1.0;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private DotFileParser() {}
+
+  /**
+   * The paths read from a .DOT file. Buildings are numbered in the order they first appear in the
+   * file, and paths are listed in file order.
+   */
+  public static class Result {
+    private final List<String> names;
+    private final int[] preds;
+    private final int[] succs;
+    private final double[] weights;
+
+    private Result(List<String> names, int[] preds, int[] succs, double[] weights) {
+      this.names = names;
+      this.preds = preds;
+      this.succs = succs;
+      this.weights = weights;
+    }
+
+    /**
+     * getter method that returns the names of the buildings, in the order they first appear
+     *
+     * @return the building names, indexed by building number
+     */
+    public List<String> getNames() {
+      return names;
+    }
+
+    /**
+     * getter method that returns the number of paths read, counting repeated paths every time
+     *
+     * @return the number of paths
+     */
+    public int getPathCount() {
+      return preds.length;
+    }
+
+    /**
+     * getter method that returns the number of the building a path starts at
+     *
+     * @param path the index of the path in file order
+     * @return the number of its first building
+     */
+    public int getPred(int path) {
+      return preds[path];
+    }
+
+    /**
+     * getter method that returns the number of the building a path ends at
+     *
+     * @param path the index of the path in file order
+     * @return the number of its second building
+     */
+    public int getSucc(int path) {
+      return succs[path];
+    }
+
+    /**
+     * getter method that returns the walking time of a path
+     *
+     * @param path the index of the path in file order
+     * @return its walking time, as written in the file
+     */
+    public double getWeight(int path) {
+      return weights[path];
+    }
+  }
+
+  /**
+   * Reads every path in a .DOT file
+   *
+   * @param filePath the path of the .DOT file
+   * @return the buildings and paths in the file
+   * @throws IOException           if the file cannot be read
+   * @throws NumberFormatException if a walking time has more than one decimal point
+   */
+  public static Result parse(String filePath) throws IOException {
+    Chunk[] chunks;
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      long[] bounds = chunkBounds(channel);
+      MappedByteBuffer[] buffers = new MappedByteBuffer[bounds.length - 1];
+      for (int i = 0; i < buffers.length; i++) {
+        long length = bounds[i + 1] - bounds[i];
+        buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], length);
+      }
+      chunks = IntStream.range(0, buffers.length).parallel().mapToObj(i -> parseChunk(buffers[i]))
+          .toArray(Chunk[]::new);
+    }
+    return merge(chunks);
+  }
+
+  /**
+   * Reads every path from a Reader, such as a graph streamed from a DotGenerator, on the calling
+   * thread. The reader is closed once all of it has been read.
+   *
+   * @param source the reader to read the .DOT data from
+   * @return the buildings and paths read
+   * @throws IOException           if the reader cannot be read
+   * @throws NumberFormatException if a walking time has more than one decimal point
+   */
+  public static Result parse(Reader source) throws IOException {
+    Chunk chunk = new Chunk();
+    try (BufferedReader reader = new BufferedReader(source)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        parseLine(ByteBuffer.wrap(bytes), 0, bytes.length, chunk);
+      }
+    }
+    return merge(new Chunk[] {chunk});
+  }
+
+  /**
+   * Helper method that splits a file into chunks of roughly equal size that each end just after a
+   * line break, or at the end of the file
+   *
+   * @return the offsets the chunks start at, followed by the size of the file
+   */
+  private static long[] chunkBounds(FileChannel channel) throws IOException {
+    long size = channel.size();
+    int chunkCount = (int) Math.max(size / MAX_CHUNK_SIZE + 1,
+        Math.min(size / MIN_CHUNK_SIZE, Runtime.getRuntime().availableProcessors() * 4L));
+    chunkCount = Math.max(chunkCount, 1);
+    long[] bounds = new long[chunkCount + 1];
+    bounds[chunkCount] = size;
+    ByteBuffer window = ByteBuffer.allocate(1 << 16);
+    for (int i = 1; i < chunkCount; i++) {
+      long position = Math.max(size / chunkCount * i, bounds[i - 1]);
+      bounds[i] = size;
+      // move the bound forward to just after the next line break
+      searching:
+      while (position < size) {
+        window.clear();
+        int read = channel.read(window, position);
+        if (read <= 0) {
+          break;
+        }
+        for (int j = 0; j < read; j++) {
+          if (window.get(j) == '\n') {
+            bounds[i] = position + j + 1;
+            break searching;
+          }
+        }
+        position += read;
+      }
+    }
+    return bounds;
+  }
+
+  /**
+   * The paths read from one chunk, with buildings numbered in the order they first appear in it
+   */
+  private static class Chunk {
+    private final NodeDictionary<String> names = new NodeDictionary<String>();
+    private int[] preds = new int[64];
+    private int[] succs = new int[64];
+    private double[] weights = new double[64];
+    private int size = 0;
+
+    private void add(String pred, String succ, double weight) {
+      if (size == preds.length) {
+        preds = Arrays.copyOf(preds, size * 2);
+        succs = Arrays.copyOf(succs, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      preds[size] = names.add(pred);
+      succs[size] = names.add(succ);
+      weights[size] = weight;
+      size++;
+    }
+  }
+
+  /**
+   * Helper method that reads the paths in one chunk, line by line. Carriage returns end lines as
+   * well as line feeds, like BufferedReader.readLine().
+   */
+  private static Chunk parseChunk(ByteBuffer buffer) {
+    Chunk chunk = new Chunk();
+    int limit = buffer.limit();
+    int lineStart = 0;
+    while (lineStart < limit) {
+      int lineEnd = lineStart;
+      while (lineEnd < limit && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+        lineEnd++;
+      }
+      parseLine(buffer, lineStart, lineEnd, chunk);
+      lineStart = lineEnd + 1;
+    }
+    return chunk;
+  }
+
+  /**
+   * Helper method that adds the path on a line to a chunk, if the line has one. Like the regex's
+   * find(), every opening quote on the line is tried in turn until one starts a path.
+   */
+  private static void parseLine(ByteBuffer buffer, int start, int end, Chunk chunk) {
+    for (int quote = indexOf(buffer, '"', start, end); quote != -1;
+        quote = indexOf(buffer, '"', quote + 1, end)) {
+      // "pred" -- "succ" [seconds=weight];
+      int predEnd = indexOf(buffer, '"', quote + 1, end);
+      if (predEnd == -1 || !matches(buffer, predEnd, end, "\" -- \"")) {
+        continue;
+      }
+      int succStart = predEnd + 6;
+      int succEnd = indexOf(buffer, '"', succStart, end);
+      if (succEnd == -1 || !matches(buffer, succEnd, end, "\" [seconds=")) {
+        continue;
+      }
+      int weightStart = succEnd + 11;
+      int weightEnd = weightStart;
+      while (weightEnd < end
+          && (buffer.get(weightEnd) == '.' || isDigit(buffer.get(weightEnd)))) {
+        weightEnd++;
+      }
+      if (weightEnd == weightStart || !matches(buffer, weightEnd, end, "];")) {
+        continue;
+      }
+      chunk.add(decode(buffer, quote + 1, predEnd), decode(buffer, succStart, succEnd),
+          parseWeight(buffer, weightStart, weightEnd));
+      return;
+    }
+  }
+
+  private static int indexOf(ByteBuffer buffer, char c, int from, int end) {
+    for (int i = from; i < end; i++) {
+      if (buffer.get(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean matches(ByteBuffer buffer, int from, int end, String literal) {
+    if (end - from < literal.length()) {
+      return false;
+    }
+    for (int i = 0; i < literal.length(); i++) {
+      if (buffer.get(from + i) != literal.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  private static String decode(ByteBuffer buffer, int start, int end) {
+    byte[] bytes = new byte[end - start];
+    buffer.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Helper method that turns the digits and decimal point of a walking time into the double that
+   * Double.parseDouble() would give. Walking times with at most 15 significant digits are
+   * exactly an integer divided by an exact power of ten, and a single division rounds correctly,
+   * so only longer ones need Double.parseDouble().
+   */
+  private static double parseWeight(ByteBuffer buffer, int start, int end) {
+    long mantissa = 0;
+    int digits = 0;
+    int decimals = -1; // -1 until the decimal point is seen
+    for (int i = start; i < end; i++) {
+      byte b = buffer.get(i);
+      if (b == '.') {
+        if (decimals != -1) {
+          decimals = Integer.MAX_VALUE; // malformed, let Double.parseDouble() report it
+          break;
+        }
+        decimals = 0;
+        continue;
+      }
+      if (mantissa != 0 || b != '0') {
+        digits++;
+      }
+      mantissa = mantissa * 10 + (b - '0');
+      if (decimals != -1) {
+        decimals++;
+      }
+    }
+    boolean hasDigit = end - start > (decimals == -1 ? 0 : 1);
+    if (hasDigit && digits <= 15 && decimals < POWERS_OF_TEN.length) {
+      return decimals <= 0 ? mantissa : mantissa / POWERS_OF_TEN[decimals];
+    }
+    return Double.parseDouble(decode(buffer, start, end));
+  }
+
+  /**
+   * Helper method that renumbers the buildings of every chunk in the order they first appear in
+   * the whole file, and puts the chunks' paths back together in file order
+   */
+  private static Result merge(Chunk[] chunks) {
+    NodeDictionary<String> names = new NodeDictionary<String>();
+    int[][] renumbering = new int[chunks.length][];
+    int[] firstPath = new int[chunks.length + 1];
+    for (int c = 0; c < chunks.length; c++) {
+      Chunk chunk = chunks[c];
+      renumbering[c] = new int[chunk.names.getIdCount()];
+      for (int local = 0; local < renumbering[c].length; local++) {
+        renumbering[c][local] = names.add(chunk.names.get(local));
+      }
+      firstPath[c + 1] = firstPath[c] + chunk.size;
+    }
+
+    int[] preds = new int[firstPath[chunks.length]];
+    int[] succs = new int[preds.length];
+    double[] weights = new double[preds.length];
+    IntStream.range(0, chunks.length).parallel().forEach(c -> {
+      Chunk chunk = chunks[c];
+      for (int i = 0; i < chunk.size; i++) {
+        preds[firstPath[c] + i] = renumbering[c][chunk.preds[i]];
+        succs[firstPath[c] + i] = renumbering[c][chunk.succs[i]];
+      }
+      System.arraycopy(chunk.weights, 0, weights, firstPath[c], chunk.size);
+    });
+    return new Result(names.asList(), preds, succs, weights);
+  }
+}
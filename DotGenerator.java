@@ -0,0 +1,314 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * This class generates synthetic campus graphs of any size in the .DOT format that
+ * Backend.readData() reads, with every path listed in both directions the way campus.dot lists
+ * them. A graph can be written to a file, or streamed through a Reader that produces the file's
+ * text as it is read, so even graphs with millions of buildings never need to be held in memory
+ * or on disk as text.
+ *
+ * Every random choice is derived from the seed and the position of the building or path it is
+ * for, so the same shape, size and seed always produce exactly the same file. Walking times are in
+ * tenths of a second at a walking speed of 1.4 meters per second. Buildings that end up without
+ * any path are left out of the file, since paths are what declare buildings in a .DOT file, so
+ * random geometric and road graphs can have a few fewer buildings than asked for.
+ */
+public class DotGenerator {
+
+  /**
+   * The kinds of graphs the generator can produce
+   */
+  public enum Shape {
+    // square grid where every building has paths to its (up to) four neighbors, degree 4
+    GRID,
+    // buildings scattered uniformly at random, with paths between every two buildings within
+    // 100 meters of each other, average degree about 6
+    RANDOM_GEOMETRIC,
+    // jittered grid with straight avenues every 8 rows and columns and 60% of the other streets,
+    // giving the mix of degree 1 to 4 intersections of a street network, average degree about 3
+    ROAD
+  }
+
+  // walking speed used to turn distances into walking times, in meters per second
+  private static final double WALKING_SPEED = 1.4;
+  // distance between neighboring grid and road buildings, and the path radius of random
+  // geometric graphs, in meters
+  private static final double SPACING = 100.0;
+
+  // private class variables
+  private final Shape shape;
+  private final int nodeCount;
+  private final long seed;
+  // grid and road graphs place buildings in rows of side buildings, random geometric graphs
+  // scatter them over side by side square cells
+  private final int side;
+
+  /**
+   * constructor for the class
+   *
+   * @param shape     the kind of graph to generate
+   * @param nodeCount the number of buildings to generate
+   * @param seed      the seed that all random choices are derived from
+   * @throws IllegalArgumentException if nodeCount is less than two
+   */
+  public DotGenerator(Shape shape, int nodeCount, long seed) {
+    if (nodeCount < 2) {
+      throw new IllegalArgumentException("a graph needs at least two buildings");
+    }
+    this.shape = shape;
+    this.nodeCount = nodeCount;
+    this.seed = seed;
+    if (shape == Shape.RANDOM_GEOMETRIC) {
+      // about two buildings per cell, so each building has about 2 * pi neighbors in range
+      this.side = Math.max(1, (int) Math.sqrt(nodeCount / 2.0));
+    } else {
+      this.side = (int) Math.ceil(Math.sqrt(nodeCount));
+    }
+  }
+
+  /**
+   * Writes the generated graph to a file
+   *
+   * @param filePath the path of the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(String filePath) throws IOException {
+    try (Writer writer = new BufferedWriter(new FileWriter(filePath))) {
+      write(writer);
+    }
+  }
+
+  /**
+   * Writes the generated graph to a Writer, which is not closed afterwards
+   *
+   * @param writer where to write the graph
+   * @throws IOException if the writer cannot be written to
+   */
+  public void write(Writer writer) throws IOException {
+    Reader reader = reader();
+    char[] buffer = new char[8192];
+    int read;
+    while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+      writer.write(buffer, 0, read);
+    }
+  }
+
+  /**
+   * Returns a Reader over the text of the generated graph. The text is generated a few lines at a
+   * time as it is read, so the whole file is never held in memory.
+   *
+   * @return a new Reader positioned at the start of the graph
+   */
+  public Reader reader() {
+    return new GeneratedReader();
+  }
+
+  /**
+   * Reader that generates the lines of the graph on demand. Each step appends the paths of one
+   * building (grid and road graphs) or one cell (random geometric graphs) to a small buffer.
+   */
+  private class GeneratedReader extends Reader {
+    private final StringBuilder buffer = new StringBuilder();
+    private int position = 0;
+    private int nextStep = -1; // -1 is the header line
+    private final int stepCount = shape == Shape.RANDOM_GEOMETRIC ? side * side : nodeCount;
+    private boolean finished = false;
+
+    @Override
+    public int read(char[] target, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      while (position == buffer.length()) {
+        if (finished) {
+          return -1;
+        }
+        buffer.setLength(0);
+        position = 0;
+        if (nextStep == -1) {
+          buffer.append("graph ").append(shape.name().toLowerCase()).append(" {\n");
+        } else if (nextStep < stepCount) {
+          appendStep(nextStep, buffer);
+        } else {
+          buffer.append("}\n");
+          finished = true;
+        }
+        nextStep++;
+      }
+      int count = Math.min(length, buffer.length() - position);
+      buffer.getChars(position, position + count, target, offset);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public void close() {
+      finished = true;
+      position = buffer.length();
+    }
+  }
+
+  /**
+   * Helper method that appends the paths generated by one step
+   *
+   * @param step the building (grid and road graphs) or cell (random geometric graphs) to generate
+   * @param out  where to append the lines
+   */
+  private void appendStep(int step, StringBuilder out) {
+    if (shape == Shape.RANDOM_GEOMETRIC) {
+      appendCell(step, out);
+      return;
+    }
+    int row = step / side;
+    int column = step % side;
+    // paths to the building on the right and the building below, so each path is listed once
+    if (column + 1 < side && step + 1 < nodeCount
+        && (shape == Shape.GRID || row % 8 == 0 || unit(step, 2) < 0.6)) {
+      appendPath(step, step + 1, 0, out);
+    }
+    if (step + side < nodeCount
+        && (shape == Shape.GRID || column % 8 == 0 || unit(step, 3) < 0.6)) {
+      appendPath(step, step + side, 1, out);
+    }
+  }
+
+  /**
+   * Helper method that appends a path between two grid or road buildings
+   *
+   * @param from      the first building
+   * @param to        the second building, to the right of or below the first one
+   * @param direction 0 for a path to the right, 1 for a path down, so each path gets its own
+   *                  random numbers
+   * @param out       where to append the lines
+   */
+  private void appendPath(int from, int to, int direction, StringBuilder out) {
+    double seconds;
+    if (shape == Shape.GRID) {
+      // uneven walking times between 30 and 300 seconds
+      seconds = 30 + 270 * unit(from, 4 + direction);
+    } else {
+      // straight line distance between jittered positions, with up to 30% detour
+      double dx = roadX(to) - roadX(from);
+      double dy = roadY(to) - roadY(from);
+      seconds = Math.hypot(dx, dy) * (1 + 0.3 * unit(from, 4 + direction)) / WALKING_SPEED;
+    }
+    appendLines(from, to, seconds, out);
+  }
+
+  private double roadX(int building) {
+    return (building % side + 0.35 * (unit(building, 0) - 0.5)) * SPACING;
+  }
+
+  private double roadY(int building) {
+    return (building / side + 0.35 * (unit(building, 1) - 0.5)) * SPACING;
+  }
+
+  /**
+   * Helper method that appends the paths from the buildings in one cell of a random geometric
+   * graph to every building within range in the same cell or a later neighboring cell, so each
+   * pair of buildings is considered once
+   *
+   * @param cell the index of the cell, in row major order
+   * @param out  where to append the lines
+   */
+  private void appendCell(int cell, StringBuilder out) {
+    int cellX = cell % side;
+    int cellY = cell / side;
+    int[][] neighbors = {{0, 0}, {1, 0}, {-1, 1}, {0, 1}, {1, 1}};
+    for (int from = firstInCell(cell); from < firstInCell(cell + 1); from++) {
+      for (int[] offset : neighbors) {
+        int otherX = cellX + offset[0];
+        int otherY = cellY + offset[1];
+        if (otherX < 0 || otherX >= side || otherY >= side) {
+          continue;
+        }
+        int other = otherY * side + otherX;
+        int start = other == cell ? from + 1 : firstInCell(other);
+        for (int to = start; to < firstInCell(other + 1); to++) {
+          double distance =
+              Math.hypot(geometricX(to) - geometricX(from), geometricY(to) - geometricY(from));
+          if (distance <= SPACING) {
+            appendLines(from, to, distance / WALKING_SPEED, out);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method that returns the first building of a random geometric cell. The buildings are
+   * spread as evenly as possible, so every cell holds the same number of buildings, give or take
+   * one.
+   */
+  private int firstInCell(int cell) {
+    int cellCount = side * side;
+    int base = nodeCount / cellCount;
+    int remainder = nodeCount % cellCount;
+    return cell * base + Math.min(cell, remainder);
+  }
+
+  private int cellOf(int building) {
+    int cellCount = side * side;
+    int base = nodeCount / cellCount;
+    int remainder = nodeCount % cellCount;
+    int large = remainder * (base + 1);
+    return building < large ? building / (base + 1) : remainder + (building - large) / base;
+  }
+
+  private double geometricX(int building) {
+    return (cellOf(building) % side + unit(building, 0)) * SPACING;
+  }
+
+  private double geometricY(int building) {
+    return (cellOf(building) / side + unit(building, 1)) * SPACING;
+  }
+
+  /**
+   * Helper method that appends both directions of a path, with the walking time rounded to a
+   * tenth of a second and at least a tenth of a second
+   */
+  private static void appendLines(int from, int to, double seconds, StringBuilder out) {
+    double rounded = Math.max(1, Math.round(seconds * 10)) / 10.0;
+    out.append("\t\"B").append(from).append("\" -- \"B").append(to).append("\" [seconds=")
+        .append(rounded).append("];\n");
+    out.append("\t\"B").append(to).append("\" -- \"B").append(from).append("\" [seconds=")
+        .append(rounded).append("];\n");
+  }
+
+  /**
+   * Helper method that returns a random number in [0, 1) that depends only on the seed, a
+   * building and which of that building's random numbers is asked for
+   *
+   * @param building the building the number is for
+   * @param salt     which of the building's numbers to return
+   * @return the random number
+   */
+  private double unit(long building, int salt) {
+    // SplitMix64 finalizer over a distinct counter for every (building, salt) pair
+    long z = seed + 0x9E3779B97F4A7C15L * (building * 8 + salt + 1);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    return (z >>> 11) * 0x1.0p-53;
+  }
+
+  /**
+   * Writes a generated graph to a file from the command line
+   *
+   * @param args the shape (GRID, RANDOM_GEOMETRIC or ROAD), number of buildings, seed and path of
+   *             the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 4) {
+      System.out.println("usage: java DotGenerator GRID|RANDOM_GEOMETRIC|ROAD nodes seed file");
+      return;
+    }
+    new DotGenerator(Shape.valueOf(args[0]), Integer.parseInt(args[1]), Long.parseLong(args[2]))
+        .write(args[3]);
+  }
+}
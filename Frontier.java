@@ -0,0 +1,64 @@
+/**
+ * This interface models the priority queue of int node ids that a search over a FrozenGraph
+ * expands in order of their keys. Implementations differ in how they handle an id that is offered
+ * again with a smaller key: a lazy frontier keeps both copies and leaves the stale one for the
+ * search to skip, while an indexed frontier moves the existing entry up in place (decrease-key),
+ * so an id is never in the frontier more than once.
+ */
+public interface Frontier {
+
+  /**
+   * The frontier implementations a FrozenGraph can search with
+   */
+  public enum Type {
+    // binary heap that pushes a new copy of an id for every cheaper path
+    LAZY_BINARY,
+    // d-ary heap indexed by node id that supports decrease-key
+    INDEXED_DARY,
+    // monotone bucket queue for edge weights that are multiples of a fixed bucket width
+    DIAL_BUCKET
+  }
+
+  /**
+   * Adds an id with the given key, or lowers the key of an id that is already in the frontier
+   *
+   * @param id  the node id
+   * @param key the priority of that id, smaller keys are polled first
+   */
+  public void offer(int id, double key);
+
+  /**
+   * Removes the entry with the smallest key and returns its id
+   *
+   * @return the id of the entry with the smallest key
+   * @throws java.util.NoSuchElementException if the frontier is empty
+   */
+  public int poll();
+
+  /**
+   * Returns the smallest key in the frontier without removing it
+   *
+   * @return the smallest key in the frontier
+   * @throws java.util.NoSuchElementException if the frontier is empty
+   */
+  public double peekKey();
+
+  /**
+   * Checks whether the frontier has any entries left
+   *
+   * @return true if the frontier is empty, false otherwise
+   */
+  public boolean isEmpty();
+
+  /**
+   * Retrieves the number of entries in the frontier
+   *
+   * @return the number of entries in the frontier
+   */
+  public int size();
+
+  /**
+   * Removes every entry from the frontier while keeping its arrays for reuse
+   */
+  public void clear();
+}
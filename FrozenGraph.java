@@ -0,0 +1,785 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * This class is an immutable snapshot of a DijkstraGraph stored in compressed sparse row (CSR)
+ * form. Every node is identified by its int id, and the edges leaving node u are stored at
+ * positions offsets[u] through offsets[u + 1] - 1 of the targets and weights arrays. Because the
+ * adjacency lists are flat primitive arrays, a relaxation reads neighboring memory instead of
+ * following Edge and Node references, and no weights are boxed. Snapshots are created with
+ * DijkstraGraph.freeze() and never change afterwards.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public class FrozenGraph<NodeType> {
+
+  // the frontier snapshots search with unless they are told otherwise
+  public static final Frontier.Type DEFAULT_FRONTIER_TYPE = Frontier.Type.INDEXED_DARY;
+  public static final int DEFAULT_FRONTIER_ARITY = 4;
+  // the most buckets the window of a DIAL_BUCKET frontier may hold
+  public static final int MAX_BUCKETS = 1 << 24;
+
+  // node data indexed by node id, null where a node id is no longer in use
+  protected final NodeType[] nodeData;
+  // ids of the node data in nodeData, so looking up a node compares ints instead of boxed Integers
+  protected final NodeDictionary<NodeType> ids;
+  // edges leaving node u are stored from offsets[u] (inclusive) to offsets[u + 1] (exclusive)
+  protected final int[] offsets;
+  protected final int[] targets;
+  protected final double[] weights;
+  protected final int nodeCount;
+  // the kind of frontier searches on this snapshot expand nodes from, with the heap arity for
+  // INDEXED_DARY frontiers and the bucket width for DIAL_BUCKET frontiers
+  protected final Frontier.Type frontierType;
+  protected final int frontierArity;
+  protected final double bucketWidth;
+  // largest edge weight, which sets the bucket window of DIAL_BUCKET frontiers
+  private final double maxWeight;
+  // scratch state reused by the searches each thread runs, one context per kind of frontier,
+  // shared by every snapshot so that a thread keeps one context of each kind however many
+  // snapshots it searches, grown to the largest of them
+  private static final ThreadLocal<QueryContext[]> CONTEXTS =
+      ThreadLocal.withInitial(() -> new QueryContext[Frontier.Type.values().length]);
+  // component labels that rule out pairs of nodes without a path, built when DijkstraGraph
+  // publishes the snapshot or else by the first query that needs them, and shared with the
+  // snapshots that have the same edges
+  private volatile ReachabilityIndex reachability = null;
+
+  /**
+   * Constructor that wraps already built CSR arrays. The arrays are not copied, so callers must
+   * not change them afterwards.
+   *
+   * @param nodeData  node data indexed by node id, null for unused ids
+   * @param ids       dictionary over nodeData that maps node data to node id
+   * @param offsets   start of each node's edges within targets and weights, with one extra entry
+   * @param targets   id of the successor node of each edge
+   * @param weights   weight of each edge
+   * @param nodeCount number of non-null entries in nodeData
+   */
+  protected FrozenGraph(NodeType[] nodeData, NodeDictionary<NodeType> ids, int[] offsets,
+      int[] targets, double[] weights, int nodeCount) {
+    this(nodeData, ids, offsets, targets, weights, nodeCount, DEFAULT_FRONTIER_TYPE,
+        DEFAULT_FRONTIER_ARITY, 0.0);
+  }
+
+  /**
+   * Constructor that wraps already built CSR arrays and searches them with the given kind of
+   * frontier. The arrays are not copied, so callers must not change them afterwards.
+   *
+   * @param nodeData      node data indexed by node id, null for unused ids
+   * @param ids           dictionary over nodeData that maps node data to node id
+   * @param offsets       start of each node's edges within targets and weights, with one extra
+   *                      entry
+   * @param targets       id of the successor node of each edge
+   * @param weights       weight of each edge
+   * @param nodeCount     number of non-null entries in nodeData
+   * @param frontierType  the frontier implementation searches expand nodes from
+   * @param frontierArity the number of children of each heap entry, for INDEXED_DARY frontiers
+   * @param bucketWidth   the range of path costs in one bucket, for DIAL_BUCKET frontiers
+   * @throws IllegalArgumentException if frontierArity is less than two, or if the frontier is a
+   *                                  DIAL_BUCKET and some weight is negative or not a multiple of
+   *                                  bucketWidth
+   */
+  protected FrozenGraph(NodeType[] nodeData, NodeDictionary<NodeType> ids, int[] offsets,
+      int[] targets, double[] weights, int nodeCount, Frontier.Type frontierType,
+      int frontierArity, double bucketWidth) {
+    if (frontierArity < 2) {
+      throw new IllegalArgumentException("heap arity must be at least two");
+    }
+    this.maxWeight = frontierType == Frontier.Type.DIAL_BUCKET
+        ? checkQuantized(weights, bucketWidth)
+        : 0.0;
+    this.nodeData = nodeData;
+    this.ids = ids;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.nodeCount = nodeCount;
+    this.frontierType = frontierType;
+    this.frontierArity = frontierArity;
+    this.bucketWidth = bucketWidth;
+  }
+
+  /**
+   * Helper method that checks that every weight is a non-negative multiple of the bucket width,
+   * and that the bucket window a DialBucketQueue needs for them is of a reasonable size
+   *
+   * @param weights     the edge weights to check
+   * @param bucketWidth the range of path costs in one bucket
+   * @return the largest weight
+   * @throws IllegalArgumentException if a weight is negative or not a multiple of bucketWidth, or
+   *                                  if the largest weight spans more than MAX_BUCKETS buckets
+   */
+  private static double checkQuantized(double[] weights, double bucketWidth) {
+    if (!(bucketWidth > 0)) {
+      throw new IllegalArgumentException("bucket width must be positive");
+    }
+    double maxWeight = 0.0;
+    for (double weight : weights) {
+      double buckets = weight / bucketWidth;
+      if (weight < 0 || Math.abs(buckets - Math.rint(buckets)) > 1e-6) {
+        throw new IllegalArgumentException(
+            "weight " + weight + " is not a non-negative multiple of " + bucketWidth);
+      }
+      maxWeight = Math.max(maxWeight, weight);
+    }
+    if (maxWeight / bucketWidth > MAX_BUCKETS) {
+      throw new IllegalArgumentException("weights span more than " + MAX_BUCKETS + " buckets");
+    }
+    return maxWeight;
+  }
+
+  /**
+   * Returns a snapshot that shares this snapshot's nodes and edges but searches them with another
+   * kind of frontier, so that the frontier implementations can be compared on the same graph.
+   *
+   * @param type  the frontier implementation to search with
+   * @param arity the number of children of each heap entry, for INDEXED_DARY frontiers
+   * @return the snapshot that searches with the given frontier
+   * @throws IllegalArgumentException if arity is less than two
+   */
+  public FrozenGraph<NodeType> withFrontier(Frontier.Type type, int arity) {
+    if (type == Frontier.Type.DIAL_BUCKET) {
+      throw new IllegalArgumentException(
+          "bucket queues need a bucket width, use withBucketQueue()");
+    }
+    FrozenGraph<NodeType> copy = new FrozenGraph<NodeType>(nodeData, ids, offsets, targets,
+        weights, nodeCount, type, arity, 0.0);
+    copy.reachability = reachability;
+    return copy;
+  }
+
+  /**
+   * Returns a snapshot that shares this snapshot's nodes and edges but searches them with a
+   * DialBucketQueue. Every edge weight must be a non-negative multiple of the bucket width, for
+   * example walking times rounded to tenths of a second with a bucket width of 0.1, so that the
+   * bucket queue finds the same path costs as a heap.
+   *
+   * @param bucketWidth the range of path costs in one bucket
+   * @return the snapshot that searches with a bucket queue
+   * @throws IllegalArgumentException if bucketWidth is not positive, if some weight is negative or
+   *                                  not a multiple of bucketWidth, or if the largest weight spans
+   *                                  more than MAX_BUCKETS buckets
+   */
+  public FrozenGraph<NodeType> withBucketQueue(double bucketWidth) {
+    FrozenGraph<NodeType> copy = new FrozenGraph<NodeType>(nodeData, ids, offsets, targets,
+        weights, nodeCount, Frontier.Type.DIAL_BUCKET, DEFAULT_FRONTIER_ARITY, bucketWidth);
+    copy.reachability = reachability;
+    return copy;
+  }
+
+  /**
+   * getter method that returns the kind of frontier searches on this snapshot expand nodes from
+   *
+   * @return the frontier implementation
+   */
+  public Frontier.Type getFrontierType() {
+    return frontierType;
+  }
+
+  /**
+   * Check whether the snapshot contains a node with the provided data.
+   *
+   * @param data the node contents to check for
+   * @return true if data item is stored in a node within the snapshot, or false otherwise
+   */
+  public boolean containsNode(NodeType data) {
+    return ids.contains(data);
+  }
+
+  /**
+   * Return the number of nodes in the snapshot.
+   *
+   * @return the number of nodes in the snapshot
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Return the number of edges in the snapshot.
+   *
+   * @return the number of edges in the snapshot
+   */
+  public int getEdgeCount() {
+    return targets.length;
+  }
+
+  /**
+   * Return the weight of a specific edge.
+   *
+   * @param pred the data item contained in the source node for the edge
+   * @param succ the data item contained in the target node for the edge
+   * @return the weight of the edge between those nodes
+   * @throws NoSuchElementException if either node or the edge between them are not found within
+   *                                this snapshot
+   */
+  public double getEdge(NodeType pred, NodeType succ) {
+    int from = idOf(pred);
+    int to = idOf(succ);
+    for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+      if (targets[e] == to) {
+        return weights[e];
+      }
+    }
+    throw new NoSuchElementException("No edge from " + pred.toString() + " to " + succ.toString());
+  }
+
+  /**
+   * Checks in constant time whether there might be a path from one node to another, using the
+   * strongly connected components of the snapshot. The first call builds the components in time
+   * proportional to the size of the snapshot.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return false if either node is not in the snapshot or there is certainly no path from start
+   *         to end, or true if there might be one
+   */
+  public boolean mightReach(NodeType start, NodeType end) {
+    int startId = start == null ? -1 : ids.idOf(start);
+    int endId = end == null ? -1 : ids.idOf(end);
+    return startId != -1 && endId != -1 && reachabilityIndex().mightReach(startId, endId);
+  }
+
+  /**
+   * getter method that returns the strongly connected components of this snapshot, building them
+   * the first time they are needed
+   *
+   * @return the reachability index over this snapshot's edges
+   */
+  public ReachabilityIndex reachabilityIndex() {
+    ReachabilityIndex index = reachability;
+    if (index == null) {
+      // two threads may both build the index, which is harmless since they build the same one
+      index = new ReachabilityIndex(offsets, targets);
+      reachability = index;
+    }
+    return index;
+  }
+
+  /**
+   * Helper method that builds the reachability index ahead of the first query that needs it, or
+   * takes the index of an earlier snapshot that has the same edges, which is the case when only
+   * edge weights changed in between
+   *
+   * @param previous an earlier snapshot of the same graph, or null if there is none
+   */
+  void prepareReachabilityIndex(FrozenGraph<NodeType> previous) {
+    if (reachability != null) {
+      return;
+    }
+    if (previous != null && previous.reachability != null
+        && Arrays.equals(offsets, previous.offsets) && Arrays.equals(targets, previous.targets)) {
+      reachability = previous.reachability;
+    } else {
+      reachabilityIndex();
+    }
+  }
+
+  /**
+   * Returns the list of data values from nodes along the shortest path from the node with the
+   * provided start value through the node with the provided end value.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return list of data item from node along this shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    return shortestPathResult(start, end).getPath();
+  }
+
+  /**
+   * Returns the cost of the shortest path from the node containing the start data to the node
+   * containing the end data.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the cost of the shortest path between these nodes
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public double shortestPathCost(NodeType start, NodeType end) {
+    int endId = idOf(end);
+    QueryContext context = queryContext();
+    computeShortestPath(idOf(start), endId, context);
+    return context.distance(endId);
+  }
+
+  /**
+   * Returns the cost of the shortest path from the node containing the start data to the node
+   * containing the end data, if that cost is below a limit. The search stops once the cheapest
+   * node left costs at least the limit, so it only explores the nodes closer than the limit to
+   * start, however large the graph is.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @param limit the cost the path has to stay below
+   * @return the cost of the shortest path between these nodes, or infinity if there is no path
+   *         that costs less than limit
+   * @throws NoSuchElementException when either start or end data do not correspond to a graph node
+   */
+  public double shortestPathCost(NodeType start, NodeType end, double limit) {
+    int startId = idOf(start);
+    int endId = idOf(end);
+    if (!reachabilityIndex().mightReach(startId, endId)) {
+      return Double.POSITIVE_INFINITY;
+    }
+    QueryContext context = queryContext();
+    context.reset();
+    Frontier queue = context.queue();
+    if (limit > 0) {
+      context.reach(startId, 0.0, -1, 0.0);
+    }
+    while (!queue.isEmpty()) {
+      int current = queue.poll();
+      if (context.isSettled(current)) {
+        continue; // stale copy of a node that was already expanded at a lower cost
+      }
+      context.settle(current);
+      double currentCost = context.distance(current);
+      if (current == endId) {
+        return currentCost;
+      }
+      for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+        int successor = targets[e];
+        double pathCost = currentCost + weights[e];
+        // nodes that cost the limit or more are never reached, so the search ends below it
+        if (pathCost < limit && pathCost < context.distance(successor)) {
+          context.reach(successor, pathCost, current, weights[e]);
+        }
+      }
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns the node data, the weight of each hop, and the total cost of the shortest path from
+   * the node containing the start data to the node containing the end data.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the path, hop weights and total cost of the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  public PathResult<NodeType> shortestPathResult(NodeType start, NodeType end) {
+    int startId = idOf(start);
+    int endId = idOf(end);
+    QueryContext context = queryContext();
+    computeShortestPath(startId, endId, context);
+    return toPathResult(endId, context);
+  }
+
+  /**
+   * Runs Dijkstra's algorithm from the node containing the start data until every reachable node
+   * is settled, and returns the resulting shortest path tree.
+   *
+   * @param start the data item in the starting node for the paths
+   * @return the shortest paths from start to every node it can reach
+   * @throws NoSuchElementException when start data does not correspond to a graph node
+   */
+  public ShortestPathTree<NodeType> shortestPathTree(NodeType start) {
+    int startId = idOf(start);
+    double[] dist = new double[nodeData.length];
+    int[] parent = new int[nodeData.length];
+    double[] parentWeight = new double[nodeData.length];
+    computeShortestPath(startId, -1, dist, parent, parentWeight);
+    return new ShortestPathTree<NodeType>(this, startId, dist, parent, parentWeight);
+  }
+
+  /**
+   * Computes the cost of the shortest path from every source to every target, running one search
+   * per source in parallel on the common ForkJoinPool.
+   *
+   * @param sources the data items in the starting nodes, one row of the matrix per source
+   * @param targets the data items in the destination nodes, one column of the matrix per target
+   * @return matrix[i][j] is the cost from sources.get(i) to targets.get(j), or infinity when there
+   *         is no path between them
+   * @throws NoSuchElementException when any source or target does not correspond to a graph node
+   */
+  public double[][] distanceMatrix(List<NodeType> sources, List<NodeType> targets) {
+    return distanceMatrix(sources, targets, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Computes the cost of the shortest path from every source to every target, running one search
+   * per source in parallel on the provided pool. Each worker thread searches with its own
+   * QueryContext, and writes only to the rows of the sources it searched from, so the workers never
+   * share state. Each search stops once every target is settled.
+   *
+   * @param sources the data items in the starting nodes, one row of the matrix per source
+   * @param targets the data items in the destination nodes, one column of the matrix per target
+   * @param pool    the pool to run the searches on
+   * @return matrix[i][j] is the cost from sources.get(i) to targets.get(j), or infinity when there
+   *         is no path between them
+   * @throws NoSuchElementException when any source or target does not correspond to a graph node
+   */
+  public double[][] distanceMatrix(List<NodeType> sources, List<NodeType> targets,
+      ForkJoinPool pool) {
+    int[] sourceIds = new int[sources.size()];
+    for (int i = 0; i < sourceIds.length; i++) {
+      sourceIds[i] = idOf(sources.get(i));
+    }
+    int[] targetIds = new int[targets.size()];
+    boolean[] isTarget = new boolean[nodeData.length];
+    int distinctTargets = 0;
+    for (int j = 0; j < targetIds.length; j++) {
+      targetIds[j] = idOf(targets.get(j));
+      if (!isTarget[targetIds[j]]) {
+        isTarget[targetIds[j]] = true;
+        distinctTargets++;
+      }
+    }
+    final int targetCount = distinctTargets;
+
+    double[][] matrix = new double[sourceIds.length][targetIds.length];
+    pool.submit(() -> IntStream.range(0, sourceIds.length).parallel().forEach(i -> {
+      QueryContext context = queryContext();
+      computeDistances(sourceIds[i], isTarget, targetCount, context);
+      for (int j = 0; j < targetIds.length; j++) {
+        matrix[i][j] = context.distance(targetIds[j]);
+      }
+    })).join();
+    return matrix;
+  }
+
+  /**
+   * Finds the shortest path for each of many pairs of nodes, running one search per distinct start
+   * node, in parallel on the common ForkJoinPool.
+   *
+   * @param starts the data items in the starting nodes, one per pair
+   * @param ends   the data items in the destination nodes, in the same order as starts
+   * @return the path, hop weights and total cost of the shortest path of each pair, in the same
+   *         order as starts, or null for the pairs that have no path
+   * @throws IllegalArgumentException when starts and ends have different sizes
+   * @throws NoSuchElementException   when any start or end does not correspond to a graph node
+   */
+  public List<PathResult<NodeType>> shortestPathResults(List<NodeType> starts,
+      List<NodeType> ends) {
+    return shortestPathResults(starts, ends, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Finds the shortest path for each of many pairs of nodes. The pairs are grouped by their start
+   * node, and each group is answered by a single search from that node that stops once every
+   * destination of the group is settled, so pairs that share a start node share the work. The
+   * groups are searched in parallel on the provided pool, each worker thread with its own
+   * QueryContext. Destinations the reachability index rules out are not waited for.
+   *
+   * @param starts the data items in the starting nodes, one per pair
+   * @param ends   the data items in the destination nodes, in the same order as starts
+   * @param pool   the pool to run the searches on
+   * @return the path, hop weights and total cost of the shortest path of each pair, in the same
+   *         order as starts, or null for the pairs that have no path
+   * @throws IllegalArgumentException when starts and ends have different sizes
+   * @throws NoSuchElementException   when any start or end does not correspond to a graph node
+   */
+  public List<PathResult<NodeType>> shortestPathResults(List<NodeType> starts, List<NodeType> ends,
+      ForkJoinPool pool) {
+    if (starts.size() != ends.size()) {
+      throw new IllegalArgumentException("every start node needs exactly one destination node");
+    }
+    int pairCount = starts.size();
+    // sort the pairs by start id, keeping each pair's position in the low bits
+    long[] order = new long[pairCount];
+    for (int i = 0; i < pairCount; i++) {
+      order[i] = (long) idOf(starts.get(i)) << 32 | i;
+    }
+    Arrays.sort(order);
+    int[] pairs = new int[pairCount];
+    int[] endIds = new int[pairCount];
+    int[] groupOffsets = new int[pairCount + 1];
+    int groupCount = 0;
+    for (int k = 0; k < pairCount; k++) {
+      pairs[k] = (int) order[k];
+      endIds[k] = idOf(ends.get(pairs[k]));
+      if (k == 0 || order[k] >>> 32 != order[k - 1] >>> 32) {
+        groupOffsets[groupCount++] = k;
+      }
+    }
+    groupOffsets[groupCount] = pairCount;
+    final int groups = groupCount;
+    ReachabilityIndex index = reachabilityIndex();
+
+    // each group only sets the results of its own pairs, so the threads never touch the same slot
+    List<PathResult<NodeType>> results = new ArrayList<>(Collections.nCopies(pairCount, null));
+    pool.submit(() -> IntStream.range(0, groups).parallel().forEach(g -> {
+      int from = groupOffsets[g];
+      int to = groupOffsets[g + 1];
+      int start = (int) (order[from] >>> 32);
+      QueryContext context = queryContext();
+      computeShortestPaths(start, endIds, from, to, index, context);
+      for (int k = from; k < to; k++) {
+        if (context.isSettled(endIds[k])) {
+          results.set(pairs[k], toPathResult(endIds[k], context));
+        }
+      }
+    })).join();
+    return results;
+  }
+
+  /**
+   * Helper method that runs Dijkstra's algorithm from start until every destination in
+   * ends[from] through ends[to - 1] that the reachability index does not rule out is settled, or
+   * no more nodes can be reached. When it returns, the context holds the shortest path to each
+   * settled destination.
+   *
+   * @param start   the id of the starting node
+   * @param ends    the ids of the destination nodes
+   * @param from    the position in ends of the first destination (inclusive)
+   * @param to      the position in ends of the last destination (exclusive)
+   * @param index   the reachability index of this snapshot
+   * @param context the scratch state to search with
+   */
+  protected void computeShortestPaths(int start, int[] ends, int from, int to,
+      ReachabilityIndex index, QueryContext context) {
+    context.reset();
+    Frontier queue = context.queue();
+    context.reach(start, 0.0, -1, 0.0);
+    // destinations before next are settled or ruled out; the rest are checked again after each
+    // node is settled, in order, so the search stops once the last of them is settled
+    int next = from;
+    while (next < to && !index.mightReach(start, ends[next])) {
+      next++;
+    }
+    while (!queue.isEmpty() && next < to) {
+      int current = queue.poll();
+      if (context.isSettled(current)) {
+        continue;
+      }
+      context.settle(current);
+      while (next < to && (context.isSettled(ends[next]) || !index.mightReach(start, ends[next]))) {
+        next++;
+      }
+      double currentCost = context.distance(current);
+      for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+        int successor = targets[e];
+        double pathCost = currentCost + weights[e];
+        if (pathCost < context.distance(successor)) {
+          context.reach(successor, pathCost, current, weights[e]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method that runs Dijkstra's algorithm from start until every target is settled or no
+   * more nodes can be reached, leaving the cost of every settled node in the context.
+   *
+   * @param start       the id of the starting node
+   * @param isTarget    marks the ids of the target nodes
+   * @param targetCount the number of ids marked in isTarget
+   * @param context     the scratch state to search with
+   */
+  protected void computeDistances(int start, boolean[] isTarget, int targetCount,
+      QueryContext context) {
+    context.reset();
+    Frontier queue = context.queue();
+    int remaining = targetCount;
+    context.reach(start, 0.0, -1, 0.0);
+    while (!queue.isEmpty() && remaining > 0) {
+      int current = queue.poll();
+      if (context.isSettled(current)) {
+        continue;
+      }
+      context.settle(current);
+      if (isTarget[current]) {
+        remaining--;
+      }
+      double currentCost = context.distance(current);
+      for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+        int successor = targets[e];
+        double pathCost = currentCost + weights[e];
+        if (pathCost < context.distance(successor)) {
+          context.reach(successor, pathCost, current, weights[e]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a snapshot with the same nodes and ids as this one, in which every edge points the
+   * other way. Searching the reversed snapshot from a node finds the costs of reaching that node.
+   *
+   * @return the reversed snapshot
+   */
+  public FrozenGraph<NodeType> reversed() {
+    int n = nodeData.length;
+    int[] reverseOffsets = new int[n + 1];
+    for (int e = 0; e < targets.length; e++) {
+      reverseOffsets[targets[e] + 1]++;
+    }
+    for (int u = 0; u < n; u++) {
+      reverseOffsets[u + 1] += reverseOffsets[u];
+    }
+    int[] reverseTargets = new int[targets.length];
+    double[] reverseWeights = new double[targets.length];
+    int[] next = Arrays.copyOf(reverseOffsets, n);
+    for (int u = 0; u < n; u++) {
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int r = next[targets[e]]++;
+        reverseTargets[r] = u;
+        reverseWeights[r] = weights[e];
+      }
+    }
+    return new FrozenGraph<NodeType>(nodeData, ids, reverseOffsets, reverseTargets,
+        reverseWeights, nodeCount, frontierType, frontierArity, bucketWidth);
+  }
+
+  /**
+   * getter method that returns the calling thread's scratch state for searches on this snapshot.
+   * The thread's context for this snapshot's kind of frontier is reused when it has room for every
+   * node id and its frontier is set up the same way, and is replaced by a new one otherwise, which
+   * has room for the ids of both this snapshot and the largest one searched before.
+   *
+   * @return the calling thread's QueryContext
+   */
+  protected QueryContext queryContext() {
+    QueryContext[] contexts = CONTEXTS.get();
+    int kind = frontierType.ordinal();
+    QueryContext context = contexts[kind];
+    if (context == null || context.getIdCount() < nodeData.length || !fits(context.queue())) {
+      int idCount = Math.max(nodeData.length, context == null ? 0 : context.getIdCount());
+      Frontier queue;
+      if (frontierType == Frontier.Type.INDEXED_DARY) {
+        queue = new IndexedDaryHeap(idCount, frontierArity);
+      } else if (frontierType == Frontier.Type.DIAL_BUCKET) {
+        queue = new DialBucketQueue(idCount, bucketWidth, maxWeight);
+      } else {
+        queue = new LazyBinaryHeap(idCount);
+      }
+      context = new QueryContext(idCount, queue);
+      contexts[kind] = context;
+    }
+    return context;
+  }
+
+  /**
+   * Helper method that checks whether a frontier of this snapshot's kind can be used to search
+   * this snapshot: a heap needs the same arity, and a bucket queue the same bucket width and a
+   * window wide enough for the largest edge weight
+   *
+   * @param queue a frontier of this snapshot's kind
+   * @return true if searches on this snapshot can use the frontier, false otherwise
+   */
+  private boolean fits(Frontier queue) {
+    if (frontierType == Frontier.Type.INDEXED_DARY) {
+      return ((IndexedDaryHeap) queue).getArity() == frontierArity;
+    }
+    if (frontierType == Frontier.Type.DIAL_BUCKET) {
+      DialBucketQueue buckets = (DialBucketQueue) queue;
+      return buckets.getBucketWidth() == bucketWidth
+          && buckets.getBucketCount() >= Math.round(maxWeight / bucketWidth) + 1;
+    }
+    return true;
+  }
+
+  /**
+   * Helper method that runs Dijkstra's algorithm over the CSR arrays from start until end is
+   * settled. When it returns, the context holds the cost of the shortest path to end, and following
+   * parents from end leads back to start. Passing -1 as end runs the search until every node
+   * reachable from start is settled. The search allocates nothing once the context's frontier has
+   * grown to its working size. Pairs that the reachability index rules out are rejected before the
+   * search runs.
+   *
+   * @param start   the id of the starting node
+   * @param end     the id of the destination node, or -1 to search the whole graph
+   * @param context the scratch state to search with
+   * @throws NoSuchElementException when no path from start to end is found
+   */
+  protected void computeShortestPath(int start, int end, QueryContext context) {
+    if (end != -1 && !reachabilityIndex().mightReach(start, end)) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+    context.reset();
+    Frontier queue = context.queue();
+    context.reach(start, 0.0, -1, 0.0);
+    while (!queue.isEmpty()) {
+      int current = queue.poll();
+      if (context.isSettled(current)) {
+        continue; // stale copy of a node that was already expanded at a lower cost
+      }
+      context.settle(current);
+      if (current == end) {
+        return;
+      }
+      double currentCost = context.distance(current);
+      for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+        int successor = targets[e];
+        double pathCost = currentCost + weights[e];
+        if (pathCost < context.distance(successor)) {
+          context.reach(successor, pathCost, current, weights[e]);
+        }
+      }
+    }
+    if (end != -1) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+  }
+
+  /**
+   * Helper method that runs Dijkstra's algorithm from start and copies the result into arrays that
+   * outlive the search. When it returns, dist[end] holds the cost of the shortest path, and
+   * following parent from end leads back to start, with parentWeight holding the weight of each of
+   * those hops. Passing -1 as end runs the search until every node reachable from start is settled,
+   * leaving infinity in dist and -1 in parent for the nodes that cannot be reached.
+   *
+   * @param start        the id of the starting node
+   * @param end          the id of the destination node, or -1 to search the whole graph
+   * @param dist         array of length nodeData.length that receives path costs
+   * @param parent       array of length nodeData.length that receives predecessor ids
+   * @param parentWeight array of length nodeData.length that receives predecessor edge weights
+   * @throws NoSuchElementException when no path from start to end is found
+   */
+  protected void computeShortestPath(int start, int end, double[] dist, int[] parent,
+      double[] parentWeight) {
+    QueryContext context = queryContext();
+    computeShortestPath(start, end, context);
+    context.copyTo(dist, parent, parentWeight);
+  }
+
+  /**
+   * Helper method that follows parent links back from end and collects the node data and hop
+   * weights along the way in start to end order.
+   *
+   * @param end     the id of the final node within the path
+   * @param context the scratch state of the search that reached end
+   * @return the path, hop weights and total cost of that path
+   */
+  protected PathResult<NodeType> toPathResult(int end, QueryContext context) {
+    ArrayList<NodeType> path = new ArrayList<NodeType>();
+    ArrayList<Double> hopCosts = new ArrayList<Double>();
+    for (int current = end; current != -1; current = context.parent(current)) {
+      path.add(nodeData[current]);
+      if (context.parent(current) != -1) {
+        hopCosts.add(context.parentWeight(current));
+      }
+    }
+    Collections.reverse(path);
+    Collections.reverse(hopCosts);
+    return new PathResult<NodeType>(path, hopCosts, context.distance(end));
+  }
+
+  /**
+   * Helper method that looks up the id of the node containing the provided data.
+   *
+   * @param data the node contents to look up
+   * @return the id of the node containing data
+   * @throws NoSuchElementException when data is null or not stored in this snapshot
+   */
+  protected int idOf(NodeType data) {
+    int id = data == null ? -1 : ids.idOf(data);
+    if (id == -1) {
+      throw new NoSuchElementException("No node " + data);
+    }
+    return id;
+  }
+
+}
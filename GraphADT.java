@@ -124,5 +124,22 @@ public interface GraphADT<NodeType, EdgeType extends Number> {
      */
     public double shortestPathCost(NodeType start, NodeType end);
 
+    /**
+     * Returns the node data, the weight of each edge, and the total cost of
+     * the shortest path from the node containing the start data to the node
+     * containing the end data. All three are taken from a single run of
+     * Dijkstra's shortest path algorithm, so callers that need more than one
+     * of them should prefer this method over calling shortestPathData,
+     * shortestPathCost and getEdge separately.
+     *
+     * @param start the data item in the starting node for the path
+     * @param end   the data item in the destination node for the path
+     * @return the path, hop weights and total cost of the shortest path
+     * @throws NoSuchElementException when no path from start to end is found
+     *                                or when either start or end data do not
+     *                                correspond to a graph node
+     */
+    public PathResult<NodeType> shortestPathResult(NodeType start, NodeType end);
+
 }
 
@@ -0,0 +1,353 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class writes a FrozenGraph of buildings to a binary snapshot file and reads it back, so a
+ * graph can be loaded in the time it takes to copy its arrays instead of parsing a .DOT file. A
+ * snapshot is read by memory mapping the file and copying its sections into the arrays of a new
+ * FrozenGraph, so the building names are the only objects created for nodes, and none are
+ * created for edges.
+ *
+ * The file is little endian and laid out as follows:
+ * - header: the magic number, the format version, the total walking time, the bucket width, the
+ *   number of node ids, nodes and edges, the frontier type's ordinal and the frontier arity
+ * - the CSR arrays: offsets (one int per node id, plus one), targets (one int per edge) and
+ *   weights (one double per edge)
+ * - the name dictionary: for each node id, the length of its name in UTF-8 bytes followed by those
+ *   bytes, or -1 for ids that are no longer in use
+ * - a CRC32 checksum of everything before it, as a long
+ */
+public class GraphSnapshot {
+
+  // "UWPG" in ASCII, followed by the version of the layout above
+  public static final int MAGIC = 0x55575047;
+  public static final int VERSION = 1;
+
+  private static final int HEADER_SIZE = 48;
+  // sections are mapped and written in windows of at most this many bytes
+  private static final int WINDOW_SIZE = 1 << 26;
+
+  // private class variables
+  private final FrozenGraph<String> graph;
+  private final double totalWeight;
+
+  private GraphSnapshot(FrozenGraph<String> graph, double totalWeight) {
+    this.graph = graph;
+    this.totalWeight = totalWeight;
+  }
+
+  /**
+   * getter method that returns the graph read from the snapshot
+   *
+   * @return the graph, searching with the frontier it was written with
+   */
+  public FrozenGraph<String> getGraph() {
+    return graph;
+  }
+
+  /**
+   * getter method that returns the total walking time stored with the graph
+   *
+   * @return the total walking time passed to write()
+   */
+  public double getTotalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * Writes a graph to a snapshot file. The snapshot is written to a temporary file next to the
+   * target that is then moved over it, so readers never see a partly written snapshot. The
+   * temporary file is deleted if writing or moving it fails.
+   *
+   * @param graph       the graph to write
+   * @param totalWeight the total walking time to store with the graph, which Backend reports in
+   *                    its statistics
+   * @param filePath    the path of the snapshot file
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(FrozenGraph<String> graph, double totalWeight, String filePath)
+      throws IOException {
+    // the node data array is really an Object[], so read it through a wildcard type
+    Object[] nodeData = ((FrozenGraph<?>) graph).nodeData;
+    Path target = Paths.get(filePath).toAbsolutePath();
+    Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+    try {
+      writeTo(temporary, graph, nodeData, totalWeight);
+      Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      // do not leave a partly written snapshot behind
+      try {
+        Files.deleteIfExists(temporary);
+      } catch (IOException deleteFailure) {
+        e.addSuppressed(deleteFailure);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Helper method that writes the contents of a snapshot file
+   *
+   * @param path        the path of the file to write
+   * @param graph       the graph to write
+   * @param nodeData    the node data of the graph
+   * @param totalWeight the total walking time to store with the graph
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeTo(Path path, FrozenGraph<String> graph, Object[] nodeData,
+      double totalWeight) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      Output out = new Output(channel);
+      out.putInt(MAGIC);
+      out.putInt(VERSION);
+      out.putDouble(totalWeight);
+      out.putDouble(graph.bucketWidth);
+      out.putInt(nodeData.length);
+      out.putInt(graph.nodeCount);
+      out.putInt(graph.targets.length);
+      out.putInt(graph.frontierType.ordinal());
+      out.putInt(graph.frontierArity);
+      out.putInt(0); // padding, so the arrays start 8 byte aligned
+      for (int offset : graph.offsets) {
+        out.putInt(offset);
+      }
+      for (int successor : graph.targets) {
+        out.putInt(successor);
+      }
+      for (double weight : graph.weights) {
+        out.putDouble(weight);
+      }
+      for (Object name : nodeData) {
+        if (name == null) {
+          out.putInt(-1);
+        } else {
+          byte[] bytes = ((String) name).getBytes(StandardCharsets.UTF_8);
+          out.putInt(bytes.length);
+          out.putBytes(bytes);
+        }
+      }
+      out.finish();
+    }
+  }
+
+  /**
+   * Reads a snapshot file written by write()
+   *
+   * @param filePath the path of the snapshot file
+   * @return the graph and total walking time in the snapshot
+   * @throws IOException if the file cannot be read, is not a snapshot, was written by another
+   *                     version of this class, or does not match its checksum
+   */
+  public static GraphSnapshot read(String filePath) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      Input in = new Input(channel);
+      if (channel.size() < HEADER_SIZE + Long.BYTES || in.getInt() != MAGIC) {
+        throw new IOException(filePath + " is not a graph snapshot");
+      }
+      int version = in.getInt();
+      if (version != VERSION) {
+        throw new IOException(filePath + " is a version " + version + " snapshot, expected "
+            + VERSION);
+      }
+      double totalWeight = in.getDouble();
+      double bucketWidth = in.getDouble();
+      int idCount = in.getInt();
+      int nodeCount = in.getInt();
+      int edgeCount = in.getInt();
+      int frontierOrdinal = in.getInt();
+      int frontierArity = in.getInt();
+      in.getInt(); // padding
+      Frontier.Type[] types = Frontier.Type.values();
+      if (idCount < 0 || edgeCount < 0 || nodeCount < 0 || nodeCount > idCount
+          || frontierOrdinal < 0 || frontierOrdinal >= types.length
+          || HEADER_SIZE + 4L * (idCount + 1) + 12L * edgeCount + 4L * idCount + Long.BYTES
+              > channel.size()) {
+        throw new IOException(filePath + " has a corrupt header");
+      }
+
+      int[] offsets = new int[idCount + 1];
+      int[] targets = new int[edgeCount];
+      double[] weights = new double[edgeCount];
+      in.getInts(offsets);
+      in.getInts(targets);
+      in.getDoubles(weights);
+      String[] names = new String[idCount];
+      for (int id = 0; id < idCount; id++) {
+        int length = in.getInt();
+        if (length >= 0) {
+          names[id] = in.getString(length);
+        } else if (length != -1) {
+          throw new IOException(filePath + " has a corrupt name dictionary");
+        }
+      }
+      in.verifyChecksum(filePath);
+      NodeDictionary<String> ids;
+      try {
+        ids = new NodeDictionary<String>(names);
+      } catch (IllegalArgumentException e) {
+        throw new IOException(filePath + " has a corrupt name dictionary", e);
+      }
+      if (ids.getSize() != nodeCount) {
+        throw new IOException(filePath + " has a corrupt name dictionary");
+      }
+      return new GraphSnapshot(new FrozenGraph<String>(names, ids, offsets, targets, weights,
+          nodeCount, types[frontierOrdinal], frontierArity, bucketWidth), totalWeight);
+    }
+  }
+
+  /**
+   * Writes a snapshot through a direct buffer, keeping the checksum of everything written
+   */
+  private static class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer =
+        ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 checksum = new CRC32();
+
+    private Output(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void putInt(int value) throws IOException {
+      ensureRoom(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    private void putDouble(double value) throws IOException {
+      ensureRoom(Double.BYTES);
+      buffer.putDouble(value);
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+      for (int written = 0; written < bytes.length;) {
+        ensureRoom(1);
+        int count = Math.min(buffer.remaining(), bytes.length - written);
+        buffer.put(bytes, written, count);
+        written += count;
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      checksum.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    private void finish() throws IOException {
+      flush();
+      buffer.putLong(checksum.getValue());
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  /**
+   * Reads a snapshot through memory mapped windows of the file, keeping the checksum of
+   * everything read
+   */
+  private static class Input {
+    private final FileChannel channel;
+    private final CRC32 checksum = new CRC32();
+    private ByteBuffer window = ByteBuffer.allocate(0);
+    // file position of the start of the current window
+    private long windowStart = 0;
+
+    private Input(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * Helper method that makes sure the current window holds at least the given number of
+     * unread bytes, mapping the next window of the file if it does not
+     */
+    private void ensureAvailable(int bytes) throws IOException {
+      if (window.remaining() >= bytes) {
+        return;
+      }
+      long position = windowStart + window.position();
+      checksum.update(window.flip()); // everything read from the old window
+      long length = Math.min(WINDOW_SIZE, channel.size() - Long.BYTES - position);
+      if (length < bytes) {
+        throw new IOException("snapshot ends early");
+      }
+      window = channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      windowStart = position;
+    }
+
+    private int getInt() throws IOException {
+      ensureAvailable(Integer.BYTES);
+      return window.getInt();
+    }
+
+    private double getDouble() throws IOException {
+      ensureAvailable(Double.BYTES);
+      return window.getDouble();
+    }
+
+    private void getInts(int[] values) throws IOException {
+      for (int read = 0; read < values.length;) {
+        ensureAvailable(Integer.BYTES);
+        int count = Math.min(window.remaining() / Integer.BYTES, values.length - read);
+        window.asIntBuffer().get(values, read, count);
+        window.position(window.position() + count * Integer.BYTES);
+        read += count;
+      }
+    }
+
+    private void getDoubles(double[] values) throws IOException {
+      for (int read = 0; read < values.length;) {
+        ensureAvailable(Double.BYTES);
+        int count = Math.min(window.remaining() / Double.BYTES, values.length - read);
+        window.asDoubleBuffer().get(values, read, count);
+        window.position(window.position() + count * Double.BYTES);
+        read += count;
+      }
+    }
+
+    private String getString(int length) throws IOException {
+      ensureAvailable(length);
+      byte[] bytes = new byte[length];
+      window.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Helper method that checks that everything has been read and that it matches the checksum
+     * at the end of the file
+     */
+    private void verifyChecksum(String filePath) throws IOException {
+      long position = windowStart + window.position();
+      checksum.update(window.flip());
+      window = ByteBuffer.allocate(0);
+      ByteBuffer stored = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      if (position != channel.size() - Long.BYTES
+          || channel.read(stored, position) != Long.BYTES
+          || stored.getLong(0) != checksum.getValue()) {
+        throw new IOException(filePath + " does not match its checksum");
+      }
+    }
+  }
+}
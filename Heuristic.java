@@ -0,0 +1,28 @@
+/**
+ * This interface models an estimate of the remaining cost from one graph node to another, used to
+ * guide an A* search toward its destination. To keep the paths found by A* shortest, estimates
+ * must be admissible: never larger than the true cost of the shortest path between the two nodes.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public interface Heuristic<NodeType> {
+
+  /**
+   * Estimates the cost of the shortest path from one node to another
+   *
+   * @param from the data item in the node the remaining path starts from
+   * @param to   the data item in the destination node
+   * @return a non-negative lower bound on the cost of the shortest path from from to to
+   */
+  public double estimate(NodeType from, NodeType to);
+
+  /**
+   * Returns a heuristic that always estimates 0, which turns A* back into Dijkstra's algorithm
+   *
+   * @param <NodeType> the type of the data stored at each graph node
+   * @return a heuristic that estimates 0 for every pair of nodes
+   */
+  public static <NodeType> Heuristic<NodeType> zero() {
+    return (from, to) -> 0.0;
+  }
+}
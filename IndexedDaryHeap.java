@@ -0,0 +1,160 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary min-heap of int node ids keyed by double priorities that keeps track of where each id
+ * sits in the heap. Offering an id that is already in the heap with a smaller key moves that entry
+ * up in place instead of adding a second copy, so the heap never holds more entries than there are
+ * ids and polls never return stale entries. A wider heap is shallower, which makes the decrease-key
+ * moves that dominate Dijkstra's algorithm cheaper at the cost of comparing more children per poll.
+ */
+public class IndexedDaryHeap implements Frontier {
+
+  // private class variables
+  private final int arity;
+  // heap[i] is the id at heap position i, and keys[i] is its key
+  private final int[] heap;
+  private final double[] keys;
+  // position[id] is the heap position of id, or -1 when id is not in the heap
+  private final int[] position;
+  private int size = 0;
+
+  /**
+   * constructor for the class
+   *
+   * @param idCount the number of node ids, which must all be less than idCount
+   * @param arity   the number of children of each heap entry
+   * @throws IllegalArgumentException if arity is less than two
+   */
+  public IndexedDaryHeap(int idCount, int arity) {
+    if (arity < 2) {
+      throw new IllegalArgumentException("heap arity must be at least two");
+    }
+    this.arity = arity;
+    this.heap = new int[Math.max(1, idCount)];
+    this.keys = new double[Math.max(1, idCount)];
+    this.position = new int[Math.max(1, idCount)];
+    Arrays.fill(position, -1);
+  }
+
+  @Override
+  public void offer(int id, double key) {
+    int at = position[id];
+    if (at == -1) {
+      at = size++;
+    } else if (keys[at] <= key) {
+      return; // the entry already has a key at least this small
+    }
+    siftUp(at, id, key);
+  }
+
+  @Override
+  public int poll() {
+    if (size == 0) {
+      throw new NoSuchElementException("heap is empty");
+    }
+    int top = heap[0];
+    position[top] = -1;
+    size--;
+    if (size > 0) {
+      siftDown(0, heap[size], keys[size]);
+    }
+    return top;
+  }
+
+  @Override
+  public double peekKey() {
+    if (size == 0) {
+      throw new NoSuchElementException("heap is empty");
+    }
+    return keys[0];
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * getter method that returns the number of children of each heap entry
+   *
+   * @return the heap arity
+   */
+  public int getArity() {
+    return arity;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether an id is currently in the heap
+   *
+   * @param id the node id
+   * @return true if the id is in the heap, false otherwise
+   */
+  public boolean contains(int id) {
+    return position[id] != -1;
+  }
+
+  /**
+   * Removes every entry from the heap, in time proportional to the number of entries left
+   */
+  @Override
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      position[heap[i]] = -1;
+    }
+    size = 0;
+  }
+
+  /**
+   * Helper method that moves an entry from a heap position toward the root until its parent's key
+   * is no larger than its own
+   */
+  private void siftUp(int at, int id, double key) {
+    while (at > 0) {
+      int parent = (at - 1) / arity;
+      if (keys[parent] <= key) {
+        break;
+      }
+      place(at, heap[parent], keys[parent]);
+      at = parent;
+    }
+    place(at, id, key);
+  }
+
+  /**
+   * Helper method that moves an entry from a heap position toward the leaves until none of its
+   * children has a smaller key
+   */
+  private void siftDown(int at, int id, double key) {
+    while (true) {
+      int first = at * arity + 1;
+      if (first >= size) {
+        break;
+      }
+      int last = Math.min(first + arity, size);
+      int smallest = first;
+      for (int child = first + 1; child < last; child++) {
+        if (keys[child] < keys[smallest]) {
+          smallest = child;
+        }
+      }
+      if (key <= keys[smallest]) {
+        break;
+      }
+      place(at, heap[smallest], keys[smallest]);
+      at = smallest;
+    }
+    place(at, id, key);
+  }
+
+  private void place(int at, int id, double key) {
+    heap[at] = id;
+    keys[at] = key;
+    position[id] = at;
+  }
+}
@@ -0,0 +1,383 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class is an ALT (A*, Landmarks, Triangle inequality) index over a DijkstraGraph. It picks K
+ * landmark nodes and stores the cost of the shortest path from each landmark to every node and from
+ * every node to each landmark. By the triangle inequality, for any landmark L the cost of reaching
+ * t from v is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L), so the largest of those
+ * differences is an admissible A* heuristic that needs no coordinates. Pass the index to
+ * DijkstraGraph.shortestPathResult(start, end, heuristic) to use it.
+ *
+ * The index describes the graph as it was when the index was built: it stays admissible while edge
+ * weights only grow, but should be rebuilt after nodes are added or edge weights are lowered.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public class LandmarkIndex<NodeType> implements Heuristic<NodeType> {
+
+  /**
+   * The ways landmarks can be chosen.
+   */
+  public enum Selection {
+    // landmarks are picked uniformly at random
+    RANDOM,
+    // each landmark is the node farthest from all of the landmarks picked before it
+    FARTHEST,
+    // each landmark is the leaf of the shortest path tree from a random root that heads the
+    // largest subtree whose paths the current landmarks bound poorly
+    AVOID
+  }
+
+  // marks the start of a saved index, and the version of its layout
+  private static final int MAGIC = 0x414c5431; // "ALT1"
+
+  // snapshot of the graph the index was built from, used to translate node data to ids
+  private final FrozenGraph<NodeType> graph;
+  private final int[] landmarks;
+  // fromLandmark[v * K + k] is the cost from landmark k to node v, toLandmark[v * K + k] the cost
+  // from node v to landmark k, so the values needed for one node sit next to each other
+  private final double[] fromLandmark;
+  private final double[] toLandmark;
+
+  /**
+   * Constructor that builds the index for the current state of a graph.
+   *
+   * @param graph         the graph to index
+   * @param landmarkCount the number of landmarks K to pick
+   * @param selection     the way landmarks are picked
+   * @param seed          the seed for the random choices made while picking landmarks
+   * @throws IllegalArgumentException if landmarkCount is not positive
+   */
+  public LandmarkIndex(DijkstraGraph<NodeType, ?> graph, int landmarkCount, Selection selection,
+      long seed) {
+    if (landmarkCount <= 0) {
+      throw new IllegalArgumentException("landmark count must be positive");
+    }
+    this.graph = graph.freeze();
+    FrozenGraph<NodeType> reverse = this.graph.reversed();
+    int n = this.graph.nodeData.length;
+    int k = Math.min(landmarkCount, this.graph.getNodeCount());
+    this.landmarks = new int[k];
+    this.fromLandmark = new double[n * k];
+    this.toLandmark = new double[n * k];
+
+    Random random = new Random(seed);
+    double[] dist = new double[n];
+    int[] parent = new int[n];
+    double[] parentWeight = new double[n];
+    for (int i = 0; i < k; i++) {
+      switch (selection) {
+        case RANDOM:
+          landmarks[i] = pickRandom(random, i);
+          break;
+        case FARTHEST:
+          landmarks[i] = pickFarthest(random, i);
+          break;
+        default:
+          landmarks[i] = pickAvoid(random, i, dist, parent, parentWeight);
+          break;
+      }
+      // store the costs from and to the new landmark
+      this.graph.computeShortestPath(landmarks[i], -1, dist, parent, parentWeight);
+      for (int v = 0; v < n; v++) {
+        fromLandmark[v * k + i] = dist[v];
+      }
+      reverse.computeShortestPath(landmarks[i], -1, dist, parent, parentWeight);
+      for (int v = 0; v < n; v++) {
+        toLandmark[v * k + i] = dist[v];
+      }
+    }
+  }
+
+  /**
+   * Constructor used when loading a saved index.
+   */
+  private LandmarkIndex(FrozenGraph<NodeType> graph, int[] landmarks, double[] fromLandmark,
+      double[] toLandmark) {
+    this.graph = graph;
+    this.landmarks = landmarks;
+    this.fromLandmark = fromLandmark;
+    this.toLandmark = toLandmark;
+  }
+
+  /**
+   * Returns the data stored in the landmark nodes, in the order they were picked.
+   *
+   * @return the landmark node data
+   */
+  @SuppressWarnings("unchecked")
+  public NodeType[] getLandmarks() {
+    NodeType[] data = (NodeType[]) new Object[landmarks.length];
+    for (int i = 0; i < landmarks.length; i++) {
+      data[i] = graph.nodeData[landmarks[i]];
+    }
+    return data;
+  }
+
+  /**
+   * Returns the largest lower bound the landmarks give on the cost of the shortest path between
+   * two nodes.
+   *
+   * @param from the data item in the node the remaining path starts from
+   * @param to   the data item in the destination node
+   * @return a lower bound on the cost of the shortest path, infinity if the landmarks show there is
+   *         no path, or 0 if either node was not in the graph when the index was built
+   */
+  @Override
+  public double estimate(NodeType from, NodeType to) {
+    if (!graph.containsNode(from) || !graph.containsNode(to)) {
+      return 0.0;
+    }
+    return estimate(graph.idOf(from), graph.idOf(to));
+  }
+
+  /**
+   * Helper method that computes the lower bound between two node ids.
+   *
+   * @param v the id of the node the remaining path starts from
+   * @param t the id of the destination node
+   * @return a lower bound on the cost of the shortest path from v to t
+   */
+  protected double estimate(int v, int t) {
+    int k = landmarks.length;
+    double bound = 0.0;
+    for (int i = 0; i < k; i++) {
+      double fromV = fromLandmark[v * k + i];
+      double fromT = fromLandmark[t * k + i];
+      double toV = toLandmark[v * k + i];
+      double toT = toLandmark[t * k + i];
+      // a landmark that reaches v but not t, or is reached from t but not from v, proves that v
+      // cannot reach t
+      if ((fromV < Double.POSITIVE_INFINITY && fromT == Double.POSITIVE_INFINITY)
+          || (toT < Double.POSITIVE_INFINITY && toV == Double.POSITIVE_INFINITY)) {
+        return Double.POSITIVE_INFINITY;
+      }
+      if (fromT < Double.POSITIVE_INFINITY) {
+        bound = Math.max(bound, fromT - fromV);
+      }
+      if (toV < Double.POSITIVE_INFINITY) {
+        bound = Math.max(bound, toV - toT);
+      }
+    }
+    return bound;
+  }
+
+  /**
+   * Saves the index to a file so that it can be loaded again without being rebuilt.
+   *
+   * @param filePath the path of the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void save(String filePath) throws IOException {
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(graph.nodeData.length);
+      out.writeInt(landmarks.length);
+      // node data is saved so that loading can check the index belongs to the graph
+      for (NodeType data : graph.nodeData) {
+        out.writeBoolean(data != null);
+        if (data != null) {
+          out.writeUTF(data.toString());
+        }
+      }
+      for (int landmark : landmarks) {
+        out.writeInt(landmark);
+      }
+      for (int i = 0; i < fromLandmark.length; i++) {
+        out.writeDouble(fromLandmark[i]);
+        out.writeDouble(toLandmark[i]);
+      }
+    }
+  }
+
+  /**
+   * Loads an index saved by save() for the current state of a graph.
+   *
+   * @param <NodeType> the type of the data stored at each graph node
+   * @param filePath   the path of the file to read
+   * @param graph      the graph the index was built for
+   * @return the loaded index
+   * @throws IOException if the file cannot be read, or was not saved from an index of this graph
+   */
+  public static <NodeType> LandmarkIndex<NodeType> load(String filePath,
+      DijkstraGraph<NodeType, ?> graph) throws IOException {
+    FrozenGraph<NodeType> frozen = graph.freeze();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("File is not a landmark index");
+      }
+      int n = in.readInt();
+      int k = in.readInt();
+      if (n != frozen.nodeData.length) {
+        throw new IOException("Landmark index does not match the graph");
+      }
+      for (int v = 0; v < n; v++) {
+        boolean present = in.readBoolean();
+        String data = present ? in.readUTF() : null;
+        if (present != (frozen.nodeData[v] != null)
+            || (present && !data.equals(frozen.nodeData[v].toString()))) {
+          throw new IOException("Landmark index does not match the graph");
+        }
+      }
+      int[] landmarks = new int[k];
+      for (int i = 0; i < k; i++) {
+        landmarks[i] = in.readInt();
+      }
+      double[] fromLandmark = new double[n * k];
+      double[] toLandmark = new double[n * k];
+      for (int i = 0; i < n * k; i++) {
+        fromLandmark[i] = in.readDouble();
+        toLandmark[i] = in.readDouble();
+      }
+      return new LandmarkIndex<NodeType>(frozen, landmarks, fromLandmark, toLandmark);
+    }
+  }
+
+  /**
+   * Helper method that picks a random node that is not a landmark yet.
+   */
+  private int pickRandom(Random random, int picked) {
+    while (true) {
+      int v = random.nextInt(graph.nodeData.length);
+      if (graph.nodeData[v] != null && !isLandmark(v, picked)) {
+        return v;
+      }
+    }
+  }
+
+  /**
+   * Helper method that picks the node farthest from the landmarks picked so far, measuring the
+   * distance to a landmark as the cost of the round trip. Nodes that cannot reach or be reached
+   * from any landmark count as farthest, so that separate parts of the graph get landmarks too.
+   * The first landmark is the node farthest from a random node.
+   */
+  private int pickFarthest(Random random, int picked) {
+    int n = graph.nodeData.length;
+    if (picked == 0) {
+      int root = pickRandom(random, 0);
+      double[] dist = new double[n];
+      graph.computeShortestPath(root, -1, dist, new int[n], new double[n]);
+      int farthest = root;
+      for (int v = 0; v < n; v++) {
+        if (dist[v] < Double.POSITIVE_INFINITY && dist[v] > dist[farthest]) {
+          farthest = v;
+        }
+      }
+      return farthest;
+    }
+    int k = landmarks.length;
+    int farthest = -1;
+    double farthestDistance = -1;
+    for (int v = 0; v < n; v++) {
+      if (graph.nodeData[v] == null || isLandmark(v, picked)) {
+        continue;
+      }
+      double nearest = Double.POSITIVE_INFINITY;
+      for (int i = 0; i < picked; i++) {
+        nearest = Math.min(nearest, fromLandmark[v * k + i] + toLandmark[v * k + i]);
+      }
+      if (nearest > farthestDistance) {
+        farthest = v;
+        farthestDistance = nearest;
+      }
+    }
+    return farthest;
+  }
+
+  /**
+   * Helper method that picks a landmark with the avoid method of Goldberg and Werneck. It grows a
+   * shortest path tree from a random root and weighs every node by how much the current landmarks
+   * underestimate its cost from the root. Starting at the root, it repeatedly steps into the child
+   * whose subtree has the largest total weight, skipping subtrees that already contain a landmark,
+   * and picks the leaf it ends at.
+   */
+  private int pickAvoid(Random random, int picked, double[] dist, int[] parent,
+      double[] parentWeight) {
+    int n = graph.nodeData.length;
+    int root = pickRandom(random, picked);
+    graph.computeShortestPath(root, -1, dist, parent, parentWeight);
+
+    // visit the reached nodes from farthest to nearest, so children come before their parents
+    Integer[] order = new Integer[n];
+    int reached = 0;
+    for (int v = 0; v < n; v++) {
+      if (dist[v] < Double.POSITIVE_INFINITY) {
+        order[reached++] = v;
+      }
+    }
+    Arrays.sort(order, 0, reached, (a, b) -> Double.compare(dist[b], dist[a]));
+
+    double[] size = new double[n];
+    boolean[] hasLandmark = new boolean[n];
+    for (int i = 0; i < reached; i++) {
+      int v = order[i];
+      if (isLandmark(v, picked)) {
+        hasLandmark[v] = true;
+      }
+      size[v] += dist[v] - (picked == 0 ? 0.0 : estimate(root, v));
+      if (v != root) {
+        hasLandmark[parent[v]] |= hasLandmark[v];
+        if (!hasLandmark[v]) {
+          size[parent[v]] += size[v];
+        }
+      }
+    }
+
+    // group the reached nodes by parent so each node's children can be listed
+    int[] childOffsets = new int[n + 1];
+    for (int i = 0; i < reached; i++) {
+      if (order[i] != root) {
+        childOffsets[parent[order[i]] + 1]++;
+      }
+    }
+    for (int v = 0; v < n; v++) {
+      childOffsets[v + 1] += childOffsets[v];
+    }
+    int[] children = new int[Math.max(0, reached - 1)];
+    int[] next = Arrays.copyOf(childOffsets, n);
+    for (int i = 0; i < reached; i++) {
+      if (order[i] != root) {
+        children[next[parent[order[i]]]++] = order[i];
+      }
+    }
+
+    // walk down from the root toward the heaviest subtree without a landmark
+    int current = root;
+    while (true) {
+      int best = -1;
+      for (int c = childOffsets[current]; c < childOffsets[current + 1]; c++) {
+        int child = children[c];
+        if (!hasLandmark[child] && (best == -1 || size[child] > size[best])) {
+          best = child;
+        }
+      }
+      if (best == -1) {
+        return isLandmark(current, picked) ? pickRandom(random, picked) : current;
+      }
+      current = best;
+    }
+  }
+
+  /**
+   * Helper method that checks whether a node is among the landmarks picked so far.
+   */
+  private boolean isLandmark(int v, int picked) {
+    for (int i = 0; i < picked; i++) {
+      if (landmarks[i] == v) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
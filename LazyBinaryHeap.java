@@ -0,0 +1,146 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of int node ids keyed by double priorities, stored in two parallel primitive
+ * arrays so that pushing and polling never allocate once the arrays are large enough. Like the
+ * java.util.PriorityQueue used by DijkstraGraph, decreasing a key is done lazily: the same id is
+ * simply pushed again with its smaller key, and callers skip the stale copies when they are polled.
+ */
+public class LazyBinaryHeap implements Frontier {
+
+  // private class variables
+  private double[] keys;
+  private int[] ids;
+  private int size = 0;
+
+  /**
+   * constructor for the class
+   *
+   * @param initialCapacity the number of entries the heap can hold before it has to grow
+   */
+  public LazyBinaryHeap(int initialCapacity) {
+    this.keys = new double[Math.max(1, initialCapacity)];
+    this.ids = new int[Math.max(1, initialCapacity)];
+  }
+
+  /**
+   * Adds an id with the given key to the heap, even when that id is already in the heap
+   *
+   * @param id  the node id to add
+   * @param key the priority of that id, smaller keys are polled first
+   */
+  public void push(int id, double key) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      ids = Arrays.copyOf(ids, size * 2);
+    }
+    // sift the new entry up from the bottom of the heap
+    int child = size++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      keys[child] = keys[parent];
+      ids[child] = ids[parent];
+      child = parent;
+    }
+    keys[child] = key;
+    ids[child] = id;
+  }
+
+  /**
+   * Adds an id with the given key to the heap. This is the same as push(): a cheaper key for an id
+   * that is already in the heap adds a second copy rather than moving the first one.
+   *
+   * @param id  the node id to add
+   * @param key the priority of that id, smaller keys are polled first
+   */
+  @Override
+  public void offer(int id, double key) {
+    push(id, key);
+  }
+
+  /**
+   * Returns the smallest key in the heap without removing it
+   *
+   * @return the smallest key in the heap
+   * @throws NoSuchElementException if the heap is empty
+   */
+  @Override
+  public double peekKey() {
+    if (size == 0) {
+      throw new NoSuchElementException("heap is empty");
+    }
+    return keys[0];
+  }
+
+  /**
+   * Removes the entry with the smallest key from the heap and returns its id
+   *
+   * @return the id of the entry with the smallest key
+   * @throws NoSuchElementException if the heap is empty
+   */
+  @Override
+  public int poll() {
+    if (size == 0) {
+      throw new NoSuchElementException("heap is empty");
+    }
+    int top = ids[0];
+    size--;
+    if (size > 0) {
+      // sift the last entry down from the top of the heap
+      double key = keys[size];
+      int id = ids[size];
+      int parent = 0;
+      while (true) {
+        int child = 2 * parent + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          child++;
+        }
+        if (key <= keys[child]) {
+          break;
+        }
+        keys[parent] = keys[child];
+        ids[parent] = ids[child];
+        parent = child;
+      }
+      keys[parent] = key;
+      ids[parent] = id;
+    }
+    return top;
+  }
+
+  /**
+   * Checks whether the heap has any entries left
+   *
+   * @return true if the heap is empty, false otherwise
+   */
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Retrieves the number of entries in the heap, counting stale copies
+   *
+   * @return the number of entries in the heap
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes every entry from the heap while keeping its arrays for reuse
+   */
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+}
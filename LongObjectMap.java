@@ -0,0 +1,174 @@
+import java.util.Arrays;
+
+/**
+ * A map from long keys to non-null values with the same linear probing table as
+ * OpenAddressingMap, except that the keys are kept in a long[] instead of as boxed Longs. A slot
+ * is empty when its value is null. Missing keys are reported by returning null instead of
+ * throwing, so lookups never build exceptions. BaseGraph uses it to index edges by the ids of the
+ * two nodes they connect.
+ *
+ * @param <ValueType> the type of the values in the map
+ */
+public class LongObjectMap<ValueType> {
+
+  // private class variables
+  protected long[] keys;
+  protected Object[] values;
+  protected int size = 0;
+
+  /**
+   * constructor for the class that creates a map with a small default capacity
+   */
+  public LongObjectMap() {
+    this(8);
+  }
+
+  /**
+   * constructor for the class that creates a map large enough to hold expectedSize keys without
+   * growing
+   *
+   * @param expectedSize is the number of keys the map is expected to hold
+   * @throws IllegalArgumentException if expectedSize is negative
+   */
+  public LongObjectMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("expected size cannot be negative");
+    }
+    int capacity = OpenAddressingMap.tableSizeFor(expectedSize);
+    keys = new long[capacity];
+    values = new Object[capacity];
+  }
+
+  /**
+   * Maps a key to a value, replacing the value it mapped to before if there was one.
+   *
+   * @param key   the key of the key,value pair
+   * @param value the value that key maps to
+   * @throws NullPointerException if value is null
+   */
+  public void put(long key, ValueType value) {
+    if (value == null)
+      throw new NullPointerException("null values not allowed");
+    int slot = findSlot(key);
+    if (values[slot] == null) {
+      if (size + 1 > keys.length * OpenAddressingMap.MAX_LOAD_FACTOR) {
+        resize(keys.length * 2);
+        slot = findSlot(key);
+      }
+      keys[slot] = key;
+      size++;
+    }
+    values[slot] = value;
+  }
+
+  /**
+   * Retrieves the value that a key maps to.
+   *
+   * @param key the key to look up
+   * @return the value that key maps to, or null when key is not in the map
+   */
+  @SuppressWarnings("unchecked")
+  public ValueType get(long key) {
+    return (ValueType) values[findSlot(key)];
+  }
+
+  /**
+   * Removes the mapping for a key.
+   *
+   * @param key the key whose mapping to remove
+   * @return the value that the removed key mapped to, or null when key was not in the map
+   */
+  @SuppressWarnings("unchecked")
+  public ValueType remove(long key) {
+    int slot = findSlot(key);
+    ValueType removed = (ValueType) values[slot];
+    if (removed != null) {
+      deleteSlot(slot);
+    }
+    return removed;
+  }
+
+  /**
+   * Removes every key,value pair from the map.
+   */
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  /**
+   * getter method that returns the number of keys in the map
+   *
+   * @return the number of keys
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Helper method that returns the slot a key's probe run starts at, after mixing all 64 bits of
+   * the key
+   */
+  private static int homeSlot(long key, int mask) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  /**
+   * Helper method that returns the slot holding key, or the empty slot that ends key's probe run
+   * when key is not in the table
+   *
+   * @param key the key to look for
+   * @return the index of the slot
+   */
+  protected int findSlot(long key) {
+    int mask = keys.length - 1;
+    int slot = homeSlot(key, mask);
+    while (values[slot] != null && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Helper method that empties a slot and shifts the later keys of its probe run back, the same
+   * way OpenAddressingMap does
+   *
+   * @param slot the index of the slot to empty
+   */
+  protected void deleteSlot(int slot) {
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (values[next] != null) {
+      int home = homeSlot(keys[next], mask);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    values[hole] = null;
+    size--;
+  }
+
+  /**
+   * Helper method that moves every key into a new table of the given capacity
+   *
+   * @param capacity the new table length, which must be a power of two
+   */
+  protected void resize(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[capacity];
+    values = new Object[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class gives each distinct piece of node data, such as a building name, a dense int id, so
+ * that graph code can store and compare ids instead of the data itself. Ids are handed out in the
+ * order data is added, starting at 0, and never change. The data is kept once, in an array indexed
+ * by id, and is found by an open addressing table of ids, so a dictionary of n names costs about
+ * two ints per name on top of the names themselves, instead of a map entry and a boxed Integer.
+ *
+ * A dictionary can also wrap an existing array of node data, such as the nodeData array of a
+ * FrozenGraph, where ids that are no longer in use hold null.
+ *
+ * @param <NodeType> the type of the data the ids stand for
+ */
+public class NodeDictionary<NodeType> {
+
+  // private class variables
+  private Object[] data;
+  private int idCount = 0;
+  private int size = 0;
+  // id + 1 of the data whose probe run passes through each slot, 0 for empty slots
+  private int[] slots;
+
+  /**
+   * constructor for an empty dictionary
+   */
+  public NodeDictionary() {
+    this(16);
+  }
+
+  /**
+   * constructor for an empty dictionary with room for the given number of ids
+   *
+   * @param expectedSize the number of ids to make room for
+   */
+  public NodeDictionary(int expectedSize) {
+    this.data = new Object[Math.max(1, expectedSize)];
+    this.slots = new int[OpenAddressingMap.tableSizeFor(expectedSize)];
+  }
+
+  /**
+   * constructor for a dictionary over an existing array of node data, where each entry's id is its
+   * index and null entries are ids that are not in use. The array is not copied, so callers must
+   * not change it afterwards.
+   *
+   * @param data node data indexed by id, null for unused ids
+   * @throws IllegalArgumentException if the same data appears at two ids
+   */
+  public NodeDictionary(NodeType[] data) {
+    this.data = data;
+    this.idCount = data.length;
+    this.slots = new int[OpenAddressingMap.tableSizeFor(data.length)];
+    for (int id = 0; id < data.length; id++) {
+      if (data[id] != null) {
+        int slot = findSlot(data[id]);
+        if (slots[slot] != 0) {
+          throw new IllegalArgumentException(data[id] + " appears at two ids");
+        }
+        slots[slot] = id + 1;
+        size++;
+      }
+    }
+  }
+
+  /**
+   * Returns the id of some data, giving it the next id if it does not have one yet
+   *
+   * @param item the data to look up or add
+   * @return the id of the data
+   * @throws NullPointerException if item is null
+   */
+  public int add(NodeType item) {
+    int slot = findSlot(item);
+    if (slots[slot] != 0) {
+      return slots[slot] - 1;
+    }
+    if (idCount == data.length) {
+      data = Arrays.copyOf(data, idCount * 2);
+    }
+    int id = idCount++;
+    data[id] = item;
+    slots[slot] = id + 1;
+    size++;
+    if (size > slots.length * OpenAddressingMap.MAX_LOAD_FACTOR) {
+      rehash(slots.length * 2);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the id of some data
+   *
+   * @param item the data to look up
+   * @return the id of the data, or -1 if it is not in the dictionary
+   * @throws NullPointerException if item is null
+   */
+  public int idOf(NodeType item) {
+    return slots[findSlot(item)] - 1;
+  }
+
+  /**
+   * Checks whether some data has an id
+   *
+   * @param item the data to look for
+   * @return true if the data is in the dictionary, false otherwise
+   */
+  public boolean contains(NodeType item) {
+    return item != null && idOf(item) != -1;
+  }
+
+  /**
+   * getter method that returns the data with the given id
+   *
+   * @param id the id to look up
+   * @return the data with that id, or null if the id is not in use
+   * @throws IndexOutOfBoundsException if id is negative or not less than getIdCount()
+   */
+  @SuppressWarnings("unchecked")
+  public NodeType get(int id) {
+    if (id < 0 || id >= idCount) {
+      throw new IndexOutOfBoundsException("no id " + id);
+    }
+    return (NodeType) data[id];
+  }
+
+  /**
+   * getter method that returns the number of ids, counting unused ids
+   *
+   * @return one more than the largest id
+   */
+  public int getIdCount() {
+    return idCount;
+  }
+
+  /**
+   * getter method that returns the number of ids in use
+   *
+   * @return the number of pieces of data in the dictionary
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns a read only list view of the data, indexed by id
+   *
+   * @return the data in id order
+   */
+  public List<NodeType> asList() {
+    return new AbstractList<NodeType>() {
+      @Override
+      public NodeType get(int id) {
+        return NodeDictionary.this.get(id);
+      }
+
+      @Override
+      public int size() {
+        return idCount;
+      }
+    };
+  }
+
+  /**
+   * Helper method that returns the slot holding the id of some data, or the empty slot where it
+   * would go
+   */
+  private int findSlot(Object item) {
+    int mask = slots.length - 1;
+    int slot = OpenAddressingMap.homeSlot(item, mask);
+    while (slots[slot] != 0 && !data[slots[slot] - 1].equals(item)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash(int capacity) {
+    slots = new int[capacity];
+    for (int id = 0; id < idCount; id++) {
+      if (data[id] != null) {
+        slots[findSlot(data[id])] = id + 1;
+      }
+    }
+  }
+}
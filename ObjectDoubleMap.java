@@ -0,0 +1,209 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Implements MapADT from keys to double values with the same linear probing table as
+ * OpenAddressingMap, except that the values are kept in a double[] instead of as boxed Doubles.
+ * The getDouble() and set() methods read and write values without boxing them, which is how
+ * Dijkstra's algorithm keeps its table of the cheapest path cost found to each node.
+ *
+ * @param <KeyType> the type of the keys in the map
+ */
+public class ObjectDoubleMap<KeyType> implements MapADT<KeyType, Double> {
+
+  // private class variables
+  protected Object[] keys;
+  protected double[] values;
+  protected int size = 0;
+
+  /**
+   * constructor for the class that creates a map with a small default capacity
+   */
+  public ObjectDoubleMap() {
+    this(8);
+  }
+
+  /**
+   * constructor for the class that creates a map large enough to hold expectedSize keys without
+   * growing
+   *
+   * @param expectedSize is the number of keys the map is expected to hold
+   * @throws IllegalArgumentException if expectedSize is negative
+   */
+  public ObjectDoubleMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("expected size cannot be negative");
+    }
+    int capacity = OpenAddressingMap.tableSizeFor(expectedSize);
+    keys = new Object[capacity];
+    values = new double[capacity];
+  }
+
+  @Override
+  public void put(KeyType key, Double value) throws IllegalArgumentException {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] != null) {
+      throw new IllegalArgumentException("key " + key.toString() + " already present in map");
+    }
+    insertAt(slot, key, value);
+  }
+
+  /**
+   * Maps a key to a value, replacing the value it mapped to before if there was one.
+   *
+   * @param key   the key of the key,value pair
+   * @param value the value that key maps to
+   * @throws NullPointerException if key is null
+   */
+  public void set(KeyType key, double value) {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] != null) {
+      values[slot] = value;
+    } else {
+      insertAt(slot, key, value);
+    }
+  }
+
+  @Override
+  public boolean containsKey(KeyType key) {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    return keys[findSlot(key)] != null;
+  }
+
+  @Override
+  public Double get(KeyType key) throws NoSuchElementException {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] == null) {
+      throw new NoSuchElementException("key " + key.toString() + " not in map");
+    }
+    return values[slot];
+  }
+
+  /**
+   * Retrieves the value that a key maps to, or a default value when the key is not in the map,
+   * without boxing the value or throwing an exception for missing keys.
+   *
+   * @param key          the key to look up
+   * @param defaultValue the value to return when key is not in the map
+   * @return the value that key maps to, or defaultValue
+   * @throws NullPointerException if key is null
+   */
+  public double getDouble(KeyType key, double defaultValue) {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    return keys[slot] == null ? defaultValue : values[slot];
+  }
+
+  @Override
+  public Double remove(KeyType key) throws NoSuchElementException {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] == null) {
+      throw new NoSuchElementException("key " + key.toString() + " not in map");
+    }
+    double removed = values[slot];
+    deleteSlot(slot);
+    return removed;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(keys, null);
+    size = 0;
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  /**
+   * Helper method that stores a new key in an empty slot, growing the table first if it would
+   * become too full
+   *
+   * @param slot  the empty slot that ends key's probe run
+   * @param key   the key to store
+   * @param value the value to store
+   */
+  private void insertAt(int slot, KeyType key, double value) {
+    if (size + 1 > keys.length * OpenAddressingMap.MAX_LOAD_FACTOR) {
+      resize(keys.length * 2);
+      slot = findSlot(key);
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  /**
+   * Helper method that returns the slot holding key, or the empty slot that ends key's probe run
+   * when key is not in the table
+   *
+   * @param key the key to look for
+   * @return the index of the slot
+   */
+  protected int findSlot(Object key) {
+    int mask = keys.length - 1;
+    int slot = OpenAddressingMap.homeSlot(key, mask);
+    while (keys[slot] != null && !keys[slot].equals(key)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Helper method that empties a slot and shifts the later keys of its probe run back, the same
+   * way OpenAddressingMap does
+   *
+   * @param slot the index of the slot to empty
+   */
+  protected void deleteSlot(int slot) {
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (keys[next] != null) {
+      int home = OpenAddressingMap.homeSlot(keys[next], mask);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[hole] = null;
+    size--;
+  }
+
+  /**
+   * Helper method that moves every key into a new table of the given capacity
+   *
+   * @param capacity the new table length, which must be a power of two
+   */
+  protected void resize(int capacity) {
+    Object[] oldKeys = keys;
+    double[] oldValues = values;
+    keys = new Object[capacity];
+    values = new double[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
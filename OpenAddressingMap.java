@@ -0,0 +1,221 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Implements MapADT with an open addressing hash table that uses linear probing. Keys and values
+ * live in two parallel arrays whose length is a power of two, so a lookup hashes its key once and
+ * then walks forward from the key's home slot until it finds the key or an empty slot. Removal
+ * shifts later keys of the same probe run back into the freed slot instead of leaving a marker, so
+ * lookups never have to skip over deleted entries.
+ *
+ * @param <KeyType>   the type of the keys in the map
+ * @param <ValueType> the type of the values in the map
+ */
+public class OpenAddressingMap<KeyType, ValueType> implements MapADT<KeyType, ValueType> {
+
+  // the table grows once it would become more than this full
+  protected static final double MAX_LOAD_FACTOR = 0.75;
+
+  // private class variables
+  protected Object[] keys;
+  protected Object[] values;
+  protected int size = 0;
+
+  /**
+   * constructor for the class that creates a map with a small default capacity
+   */
+  public OpenAddressingMap() {
+    this(8);
+  }
+
+  /**
+   * constructor for the class that creates a map large enough to hold expectedSize keys without
+   * growing
+   *
+   * @param expectedSize is the number of keys the map is expected to hold
+   * @throws IllegalArgumentException if expectedSize is negative
+   */
+  public OpenAddressingMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("expected size cannot be negative");
+    }
+    int capacity = tableSizeFor(expectedSize);
+    keys = new Object[capacity];
+    values = new Object[capacity];
+  }
+
+  @Override
+  public void put(KeyType key, ValueType value) throws IllegalArgumentException {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] != null) {
+      throw new IllegalArgumentException("key " + key.toString() + " already present in map");
+    }
+    if (size + 1 > keys.length * MAX_LOAD_FACTOR) {
+      resize(keys.length * 2);
+      slot = findSlot(key);
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  @Override
+  public boolean containsKey(KeyType key) {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    return keys[findSlot(key)] != null;
+  }
+
+  @Override
+  public ValueType get(KeyType key) throws NoSuchElementException {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] == null) {
+      throw new NoSuchElementException("key " + key.toString() + " not in map");
+    }
+    return valueAt(slot);
+  }
+
+  /**
+   * Retrieves the value that a key maps to, or a default value when the key is not in the map,
+   * without throwing an exception for missing keys.
+   *
+   * @param key          the key to look up
+   * @param defaultValue the value to return when key is not in the map
+   * @return the value that key maps to, or defaultValue
+   * @throws NullPointerException if key is null
+   */
+  @Override
+  public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    return keys[slot] == null ? defaultValue : valueAt(slot);
+  }
+
+  @Override
+  public ValueType remove(KeyType key) throws NoSuchElementException {
+    if (key == null)
+      throw new NullPointerException("null keys not allowed");
+    int slot = findSlot(key);
+    if (keys[slot] == null) {
+      throw new NoSuchElementException("key " + key.toString() + " not in map");
+    }
+    ValueType removed = valueAt(slot);
+    deleteSlot(slot);
+    return removed;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  /**
+   * Helper method that returns the slot holding key, or the empty slot that ends key's probe run
+   * when key is not in the table
+   *
+   * @param key the key to look for
+   * @return the index of the slot
+   */
+  protected int findSlot(Object key) {
+    int mask = keys.length - 1;
+    int slot = homeSlot(key, mask);
+    while (keys[slot] != null && !keys[slot].equals(key)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Helper method that empties a slot and shifts the later keys of its probe run back, so that
+   * every remaining key can still be reached from its home slot without crossing an empty slot
+   *
+   * @param slot the index of the slot to empty
+   */
+  protected void deleteSlot(int slot) {
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (keys[next] != null) {
+      int home = homeSlot(keys[next], mask);
+      // move the key back only if the hole lies between its home slot and where it is now
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[hole] = null;
+    values[hole] = null;
+    size--;
+  }
+
+  /**
+   * Helper method that moves every key into a new table of the given capacity
+   *
+   * @param capacity the new table length, which must be a power of two
+   */
+  protected void resize(int capacity) {
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new Object[capacity];
+    values = new Object[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private ValueType valueAt(int slot) {
+    return (ValueType) values[slot];
+  }
+
+  /**
+   * Helper method that returns the slot a key's probe run starts at. The hash code is mixed first,
+   * so keys whose hash codes differ only in their high bits still spread over the table.
+   *
+   * @param key  the key to place
+   * @param mask the table length minus one
+   * @return the index of the key's home slot
+   */
+  protected static int homeSlot(Object key, int mask) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /**
+   * Helper method that returns the smallest power of two table length that holds expectedSize keys
+   * without passing the maximum load factor
+   *
+   * @param expectedSize the number of keys to make room for
+   * @return the table length
+   */
+  protected static int tableSizeFor(int expectedSize) {
+    int capacity = 8;
+    while (capacity * MAX_LOAD_FACTOR < expectedSize) {
+      capacity *= 2;
+    }
+    return capacity;
+  }
+}
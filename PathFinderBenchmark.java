@@ -0,0 +1,235 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the path finder. They are the baseline that other performance changes are
+ * judged against, and cover:
+ * - loading campus.dot and .DOT files generated by DotGenerator with Backend.readData()
+ * - the latency of Backend.getShortestPath() for random pairs and for the most expensive pair
+ * - Backend.getStatistics()
+ * - changing the graph with insertEdge() and removeEdge()
+ *
+ * Node removal is left out: BaseGraph.removeNode() prints a line, which would make the benchmark
+ * time console output, and a removed node's id is never reused, so inserting and removing nodes
+ * over and over would measure an ever growing graph.
+ *
+ * Like the JUnit tests, these need their library on the classpath: jmh-core and
+ * jmh-generator-annprocess (1.37), with their dependencies jopt-simple (5.0.4) and commons-math3
+ * (3.6.1), plus junit-platform-console-standalone for the test classes compiled alongside. With
+ * those jars in lib/, the benchmarks are built and run from this directory with:
+ *
+ *   javac -cp "lib/*" -processor org.openjdk.jmh.generators.BenchmarkProcessor -d out *.java
+ *   java -cp "out:lib/*" PathFinderBenchmark
+ *
+ * The processor generates the benchmark harness classes and the META-INF/BenchmarkList resource
+ * in out/. Running main() runs every benchmark with the GC profiler, so allocation rates
+ * (gc.alloc.rate.norm, in bytes per operation) are reported next to the times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+
+  // the same line format that Backend.readData() parses
+  private static final Pattern EDGE_LINE =
+      Pattern.compile("\\s*\"([^\"]*)\" -- \"([^\"]*)\" \\[seconds=([0-9.]+)\\];");
+
+  /**
+   * The .DOT file to load: campus.dot, or a graph of the given shape and number of buildings
+   * written by DotGenerator
+   */
+  @State(Scope.Benchmark)
+  public static class LoadState {
+    @Param({"campus", "GRID-10000", "GRID-100000", "RANDOM_GEOMETRIC-100000", "ROAD-100000"})
+    public String dataset;
+    public String filePath;
+    private File generated;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+      if (dataset.equals("campus")) {
+        filePath = "campus.dot";
+        return;
+      }
+      String[] shapeAndSize = dataset.split("-");
+      generated = File.createTempFile("generated", ".dot");
+      new DotGenerator(DotGenerator.Shape.valueOf(shapeAndSize[0]),
+          Integer.parseInt(shapeAndSize[1]), 42).write(generated.getPath());
+      filePath = generated.getPath();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+      if (generated != null) {
+        generated.delete();
+      }
+    }
+  }
+
+  /**
+   * The campus graph loaded into a Backend whose route cache holds a single route, so that
+   * searches are measured instead of cache hits, along with the pairs of buildings to route between
+   */
+  @State(Scope.Thread)
+  public static class RouteState {
+    public Backend backend;
+    public String[][] randomPairs;
+    public String[] worstPair;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+      backend = new Backend(new DijkstraGraph<String, Double>(new OpenAddressingMap<>()), 1);
+      backend.readData("campus.dot");
+      List<String> buildings = readBuildings("campus.dot");
+
+      // the pair with the most expensive shortest path is the slowest one for Dijkstra's algorithm
+      double[][] costs = backend.getWalkingTimeTable(buildings, buildings);
+      double worstCost = -1;
+      List<String[]> reachable = new ArrayList<String[]>();
+      for (int i = 0; i < buildings.size(); i++) {
+        for (int j = 0; j < buildings.size(); j++) {
+          if (costs[i][j] < Double.POSITIVE_INFINITY) {
+            reachable.add(new String[] {buildings.get(i), buildings.get(j)});
+            if (costs[i][j] > worstCost) {
+              worstCost = costs[i][j];
+              worstPair = reachable.get(reachable.size() - 1);
+            }
+          }
+        }
+      }
+      Random random = new Random(42);
+      randomPairs = new String[1024][];
+      for (int i = 0; i < randomPairs.length; i++) {
+        randomPairs[i] = reachable.get(random.nextInt(reachable.size()));
+      }
+    }
+
+    public String[] nextRandomPair() {
+      next = (next + 1) % randomPairs.length;
+      return randomPairs[next];
+    }
+  }
+
+  /**
+   * The campus graph, changed by the benchmarks and put back the way it was after each operation
+   */
+  @State(Scope.Thread)
+  public static class MutationState {
+    public DijkstraGraph<String, Double> graph;
+    public String[] buildings;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+      graph = new DijkstraGraph<String, Double>(new OpenAddressingMap<>());
+      new Backend(graph).readData("campus.dot");
+      buildings = readBuildings("campus.dot").toArray(new String[0]);
+      graph.insertNode("Benchmark Hall");
+    }
+
+    public String nextBuilding() {
+      next = (next + 1) % buildings.length;
+      return buildings[next];
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Backend readData(LoadState state) throws FileNotFoundException {
+    Backend backend = new Backend(new DijkstraGraph<String, Double>(new OpenAddressingMap<>()));
+    backend.readData(state.filePath);
+    return backend;
+  }
+
+  @Benchmark
+  public ShortestPathInterface getShortestPathRandom(RouteState state) {
+    String[] pair = state.nextRandomPair();
+    return state.backend.getShortestPath(pair[0], pair[1]);
+  }
+
+  @Benchmark
+  public ShortestPathInterface getShortestPathWorstCase(RouteState state) {
+    // empty the route cache so the same route is searched for every time
+    state.backend.getRouteCache().clear();
+    return state.backend.getShortestPath(state.worstPair[0], state.worstPair[1]);
+  }
+
+  @Benchmark
+  public String getStatistics(RouteState state) {
+    return state.backend.getStatistics();
+  }
+
+  @Benchmark
+  public boolean insertThenRemoveEdge(MutationState state) {
+    String building = state.nextBuilding();
+    state.graph.insertEdge("Benchmark Hall", building, 1.0);
+    return state.graph.removeEdge("Benchmark Hall", building);
+  }
+
+  /**
+   * Helper method that lists the buildings in a .DOT file in the order they first appear
+   *
+   * @param filePath the path of the .DOT file
+   * @return the names of the buildings
+   * @throws IOException if the file cannot be read
+   */
+  static List<String> readBuildings(String filePath) throws IOException {
+    List<String> buildings = new ArrayList<String>();
+    OpenAddressingMap<String, Boolean> seen = new OpenAddressingMap<String, Boolean>();
+    try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        Matcher matcher = EDGE_LINE.matcher(line);
+        if (matcher.find()) {
+          for (String building : new String[] {matcher.group(1), matcher.group(2)}) {
+            if (!seen.containsKey(building)) {
+              seen.put(building, true);
+              buildings.add(building);
+            }
+          }
+        }
+      }
+    }
+    return buildings;
+  }
+
+  /**
+   * Runs every benchmark in this class with the GC profiler
+   *
+   * @param args unused
+   * @throws RunnerException if JMH cannot run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PathFinderBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+}
@@ -0,0 +1,83 @@
+import java.util.List;
+
+/**
+ * This class stores everything a single shortest path search learns about one route: the node data
+ * along the path, the weight of every hop on that path, and the total cost of the path. It lets
+ * callers read all three from one search instead of searching once per piece of information.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public class PathResult<NodeType> {
+
+  // private class variables
+  private final List<NodeType> path;
+  private final List<Double> hopCosts;
+  private final double totalCost;
+  private final int expandedCount;
+
+  /**
+   * constructor for the class
+   *
+   * @param path      is the list of node data along the path, from start to end
+   * @param hopCosts  is the list of edge weights between consecutive nodes along the path
+   * @param totalCost is the total cost of the path
+   */
+  public PathResult(List<NodeType> path, List<Double> hopCosts, double totalCost) {
+    this(path, hopCosts, totalCost, -1);
+  }
+
+  /**
+   * constructor for the class that also records how much work the search did
+   *
+   * @param path          is the list of node data along the path, from start to end
+   * @param hopCosts      is the list of edge weights between consecutive nodes along the path
+   * @param totalCost     is the total cost of the path
+   * @param expandedCount is the number of nodes the search expanded before finding the path
+   */
+  public PathResult(List<NodeType> path, List<Double> hopCosts, double totalCost,
+      int expandedCount) {
+    this.path = path;
+    this.hopCosts = hopCosts;
+    this.totalCost = totalCost;
+    this.expandedCount = expandedCount;
+  }
+
+  /**
+   * getter method that returns the list of node data along the path
+   *
+   * @return the node data along the path, from start to end
+   */
+  public List<NodeType> getPath() {
+    return this.path;
+  }
+
+  /**
+   * getter method that returns the weight of each hop along the path, so that getHopCosts().get(i)
+   * is the weight of the edge from getPath().get(i) to getPath().get(i + 1)
+   *
+   * @return the list of edge weights along the path
+   */
+  public List<Double> getHopCosts() {
+    return this.hopCosts;
+  }
+
+  /**
+   * getter method that returns the total cost of the path
+   *
+   * @return the sum of the edge weights along the path
+   */
+  public double getTotalCost() {
+    return this.totalCost;
+  }
+
+  /**
+   * getter method that returns the number of nodes whose leaving edges were scanned while searching
+   * for this path, a node that was expanded more than once is counted each time
+   *
+   * @return the number of node expansions, or -1 if the search did not count them
+   */
+  public int getExpandedCount() {
+    return this.expandedCount;
+  }
+
+}
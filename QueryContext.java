@@ -0,0 +1,163 @@
+import java.util.Arrays;
+
+/**
+ * This class holds the scratch state of one shortest path search over a FrozenGraph: the cost,
+ * predecessor id and predecessor edge weight found for each node id, which ids are settled, and
+ * the frontier of ids waiting to be expanded. A context is reused for one search after another, so
+ * a search does not allocate anything once the arrays have grown to their working size.
+ *
+ * Instead of clearing its arrays before each search, a context stamps every id it writes with the
+ * number of the current search (its epoch). Entries stamped with an older epoch are treated as
+ * unreached, so starting a new search only increments the epoch. Contexts are not thread safe;
+ * FrozenGraph keeps one per thread and kind of frontier, shared by every snapshot the thread
+ * searches and grown to the largest of them.
+ */
+public class QueryContext {
+
+  // private class variables
+  private final int[] reachedStamp;
+  private final int[] settledStamp;
+  private final double[] dist;
+  private final int[] parent;
+  private final double[] parentWeight;
+  private final Frontier queue;
+  private int epoch = 0;
+
+  /**
+   * constructor for the class that searches with a lazy binary heap
+   *
+   * @param idCount the number of node ids the searches will use
+   */
+  public QueryContext(int idCount) {
+    this(idCount, new LazyBinaryHeap(idCount));
+  }
+
+  /**
+   * constructor for the class
+   *
+   * @param idCount the number of node ids the searches will use
+   * @param queue   the empty frontier the searches expand nodes from
+   */
+  public QueryContext(int idCount, Frontier queue) {
+    this.reachedStamp = new int[idCount];
+    this.settledStamp = new int[idCount];
+    this.dist = new double[idCount];
+    this.parent = new int[idCount];
+    this.parentWeight = new double[idCount];
+    this.queue = queue;
+  }
+
+  /**
+   * Starts a new search, marking every id as unreached and emptying the frontier
+   */
+  public void reset() {
+    epoch++;
+    if (epoch == Integer.MAX_VALUE) {
+      // the stamps are about to wrap around, so clear them once and start counting again
+      Arrays.fill(reachedStamp, 0);
+      Arrays.fill(settledStamp, 0);
+      epoch = 1;
+    }
+    queue.clear();
+  }
+
+  /**
+   * getter method that returns the cost of the cheapest path found to an id in this search
+   *
+   * @param id the node id
+   * @return the cost found so far, or infinity when the id has not been reached
+   */
+  public double distance(int id) {
+    return reachedStamp[id] == epoch ? dist[id] : Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * getter method that returns the predecessor of an id on the cheapest path found to it
+   *
+   * @param id the node id
+   * @return the predecessor's id, or -1 for the start node and ids that have not been reached
+   */
+  public int parent(int id) {
+    return reachedStamp[id] == epoch ? parent[id] : -1;
+  }
+
+  /**
+   * getter method that returns the weight of the edge from an id's predecessor to it
+   *
+   * @param id the node id
+   * @return the weight of that edge, or 0 for the start node and ids that have not been reached
+   */
+  public double parentWeight(int id) {
+    return reachedStamp[id] == epoch ? parentWeight[id] : 0.0;
+  }
+
+  /**
+   * Records a cheaper path to an id and queues the id to be expanded
+   *
+   * @param id        the node id
+   * @param cost      the cost of the path
+   * @param parentId  the id of the node before it on the path, or -1 for the start node
+   * @param weight    the weight of the edge from parentId to id
+   */
+  public void reach(int id, double cost, int parentId, double weight) {
+    reachedStamp[id] = epoch;
+    dist[id] = cost;
+    parent[id] = parentId;
+    parentWeight[id] = weight;
+    queue.offer(id, cost);
+  }
+
+  /**
+   * Checks whether an id has been settled in this search
+   *
+   * @param id the node id
+   * @return true if the id has been settled, false otherwise
+   */
+  public boolean isSettled(int id) {
+    return settledStamp[id] == epoch;
+  }
+
+  /**
+   * Marks an id as settled in this search
+   *
+   * @param id the node id
+   */
+  public void settle(int id) {
+    settledStamp[id] = epoch;
+  }
+
+  /**
+   * getter method that returns the number of node ids the searches can use
+   *
+   * @return the number of node ids, which must all be less than this
+   */
+  public int getIdCount() {
+    return dist.length;
+  }
+
+  /**
+   * getter method that returns the frontier of ids waiting to be expanded in this search
+   *
+   * @return the search's frontier
+   */
+  public Frontier queue() {
+    return queue;
+  }
+
+  /**
+   * Copies the costs, predecessors and predecessor edge weights of the ids below the length of
+   * the arrays into arrays that outlive the search, writing infinity, -1 and 0 for the ids that
+   * were not reached
+   *
+   * @param distOut         array of at most idCount entries that receives path costs
+   * @param parentOut       array as long as distOut that receives predecessor ids
+   * @param parentWeightOut array as long as distOut that receives predecessor edge weights
+   */
+  public void copyTo(double[] distOut, int[] parentOut, double[] parentWeightOut) {
+    for (int id = 0; id < distOut.length; id++) {
+      distOut[id] = distance(id);
+      parentOut[id] = parent(id);
+      parentWeightOut[id] = parentWeight(id);
+    }
+  }
+}
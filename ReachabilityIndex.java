@@ -0,0 +1,252 @@
+import java.util.Arrays;
+
+/**
+ * This class tells in constant time when one node of a graph certainly cannot reach another, so
+ * that a search between them can be rejected before it explores everything the start node can
+ * reach. It labels every node with its strongly connected component, found with Tarjan's
+ * algorithm, and indexes the condensation of the graph (the DAG with one node per component) with
+ * the component numbers Tarjan's algorithm hands out, which are a reverse topological order, and
+ * with two interval labels in the style of GRAIL. A node can only reach nodes whose component
+ * comes later in topological order and whose intervals lie inside its own, so a pair that fails
+ * either test has no path. Nodes in the same component always reach each other. Any other pair
+ * might still have no path, so searches have to run to find out.
+ *
+ * The index is built from the CSR arrays of a graph in time proportional to its nodes and edges,
+ * and keeps four ints per component and one per node.
+ */
+public class ReachabilityIndex {
+
+  // number of interval labels per component, each from a depth first search that visits children
+  // in a different order
+  private static final int LABEL_COUNT = 2;
+
+  // private class variables
+  // component of each node id, where components are numbered in reverse topological order
+  private final int[] component;
+  // for each label, the post order rank of each component and the smallest rank it can reach
+  private final int[][] rank;
+  private final int[][] lowestRank;
+  private final int componentCount;
+
+  /**
+   * constructor for the class that indexes a graph given as CSR arrays
+   *
+   * @param offsets start of each node's edges within targets, with one extra entry
+   * @param targets id of the successor node of each edge
+   */
+  public ReachabilityIndex(int[] offsets, int[] targets) {
+    int n = offsets.length - 1;
+    this.component = new int[n];
+    this.componentCount = labelComponents(offsets, targets);
+
+    // edges of the condensation, between different components only, as CSR arrays
+    int[] dagOffsets = new int[componentCount + 1];
+    for (int u = 0; u < n; u++) {
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        if (component[u] != component[targets[e]]) {
+          dagOffsets[component[u] + 1]++;
+        }
+      }
+    }
+    for (int c = 0; c < componentCount; c++) {
+      dagOffsets[c + 1] += dagOffsets[c];
+    }
+    int[] dagTargets = new int[dagOffsets[componentCount]];
+    int[] next = Arrays.copyOf(dagOffsets, componentCount);
+    for (int u = 0; u < n; u++) {
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        if (component[u] != component[targets[e]]) {
+          dagTargets[next[component[u]]++] = component[targets[e]];
+        }
+      }
+    }
+
+    this.rank = new int[LABEL_COUNT][];
+    this.lowestRank = new int[LABEL_COUNT][];
+    for (int label = 0; label < LABEL_COUNT; label++) {
+      labelIntervals(dagOffsets, dagTargets, label);
+    }
+  }
+
+  /**
+   * Checks whether there might be a path from one node to another
+   *
+   * @param from the id of the starting node
+   * @param to   the id of the destination node
+   * @return false if there is certainly no path from the start node to the destination, or true
+   *         if there might be one (there always is when both are in the same component)
+   */
+  public boolean mightReach(int from, int to) {
+    if (from >= component.length || to >= component.length) {
+      return true; // nodes added after the index was built
+    }
+    int fromComponent = component[from];
+    int toComponent = component[to];
+    if (fromComponent == toComponent) {
+      return true;
+    }
+    // edges of the condensation only lead to components with smaller numbers
+    if (fromComponent < toComponent) {
+      return false;
+    }
+    for (int label = 0; label < LABEL_COUNT; label++) {
+      if (rank[label][toComponent] > rank[label][fromComponent]
+          || lowestRank[label][toComponent] < lowestRank[label][fromComponent]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether two nodes are in the same strongly connected component, in which case each can
+   * reach the other
+   *
+   * @param first  the id of one node
+   * @param second the id of the other node
+   * @return true if the nodes are in the same component, false otherwise
+   */
+  public boolean isStronglyConnected(int first, int second) {
+    return first < component.length && second < component.length
+        && component[first] == component[second];
+  }
+
+  /**
+   * getter method that returns the number of strongly connected components
+   *
+   * @return the number of components, counting ids that are not in use as components of their own
+   */
+  public int getComponentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Helper method that fills in the component of every node with an iterative version of Tarjan's
+   * algorithm, so that long paths cannot overflow the call stack. Components are numbered in the
+   * order they are completed, which is a reverse topological order of the condensation.
+   *
+   * @param offsets start of each node's edges within targets, with one extra entry
+   * @param targets id of the successor node of each edge
+   * @return the number of components
+   */
+  private int labelComponents(int[] offsets, int[] targets) {
+    int n = component.length;
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    Arrays.fill(index, -1);
+    // the nodes of the components that are not complete yet
+    int[] stack = new int[n];
+    int stackSize = 0;
+    // the depth first search path, with the next edge to follow from each node on it
+    int[] path = new int[n];
+    int[] nextEdge = new int[n];
+    int nextIndex = 0;
+    int count = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] != -1) {
+        continue;
+      }
+      int depth = 0;
+      path[0] = root;
+      nextEdge[0] = offsets[root];
+      index[root] = lowLink[root] = nextIndex++;
+      stack[stackSize++] = root;
+      component[root] = -1; // on the stack
+      while (depth >= 0) {
+        int current = path[depth];
+        if (nextEdge[depth] < offsets[current + 1]) {
+          int successor = targets[nextEdge[depth]++];
+          if (index[successor] == -1) {
+            depth++;
+            path[depth] = successor;
+            nextEdge[depth] = offsets[successor];
+            index[successor] = lowLink[successor] = nextIndex++;
+            stack[stackSize++] = successor;
+            component[successor] = -1;
+          } else if (component[successor] == -1) {
+            lowLink[current] = Math.min(lowLink[current], index[successor]);
+          }
+          continue;
+        }
+        // every edge of current has been followed
+        if (lowLink[current] == index[current]) {
+          int member;
+          do {
+            member = stack[--stackSize];
+            component[member] = count;
+          } while (member != current);
+          count++;
+        }
+        depth--;
+        if (depth >= 0) {
+          lowLink[path[depth]] = Math.min(lowLink[path[depth]], lowLink[current]);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper method that gives every component of the condensation an interval label with a depth
+   * first search: its post order rank, and the smallest rank among the components it can reach.
+   * A component can only reach components whose intervals lie inside its own. Label 0 visits
+   * roots and children in increasing order, and label 1 in decreasing order, so that the two
+   * labels rule out different pairs.
+   *
+   * @param dagOffsets start of each component's edges within dagTargets, with one extra entry
+   * @param dagTargets the component each edge of the condensation leads to
+   * @param label      the label to fill in
+   */
+  private void labelIntervals(int[] dagOffsets, int[] dagTargets, int label) {
+    int[] ranks = new int[componentCount];
+    int[] lowest = new int[componentCount];
+    Arrays.fill(ranks, -1);
+    boolean[] visited = new boolean[componentCount];
+    boolean forward = label % 2 == 0;
+    int[] path = new int[componentCount];
+    int[] nextEdge = new int[componentCount];
+    int nextRank = 0;
+
+    for (int i = 0; i < componentCount; i++) {
+      int root = forward ? i : componentCount - 1 - i;
+      if (visited[root]) {
+        continue;
+      }
+      int depth = 0;
+      path[0] = root;
+      nextEdge[0] = 0;
+      visited[root] = true;
+      lowest[root] = Integer.MAX_VALUE;
+      while (depth >= 0) {
+        int current = path[depth];
+        int edgeCount = dagOffsets[current + 1] - dagOffsets[current];
+        if (nextEdge[depth] < edgeCount) {
+          int e = forward ? dagOffsets[current] + nextEdge[depth]
+              : dagOffsets[current + 1] - 1 - nextEdge[depth];
+          nextEdge[depth]++;
+          int child = dagTargets[e];
+          if (!visited[child]) {
+            visited[child] = true;
+            lowest[child] = Integer.MAX_VALUE;
+            depth++;
+            path[depth] = child;
+            nextEdge[depth] = 0;
+          } else {
+            // children finished earlier already have their final labels
+            lowest[current] = Math.min(lowest[current], lowest[child]);
+          }
+          continue;
+        }
+        ranks[current] = nextRank++;
+        lowest[current] = Math.min(lowest[current], ranks[current]);
+        depth--;
+        if (depth >= 0) {
+          lowest[path[depth]] = Math.min(lowest[path[depth]], lowest[current]);
+        }
+      }
+    }
+    rank[label] = ranks;
+    lowestRank[label] = lowest;
+  }
+}
@@ -0,0 +1,180 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * This class is a size-bounded cache of shortest paths keyed on their (start, destination) pair.
+ * When the cache is full, the route that was used least recently is evicted to make room for a new
+ * one. The cache keeps counts of its hits, misses and evictions, and is safe to share between
+ * threads.
+ */
+public class RouteCache {
+
+  /**
+   * Key that identifies a route by its start and destination buildings
+   */
+  private static final class RouteKey {
+    private final String start;
+    private final String destination;
+
+    private RouteKey(String start, String destination) {
+      this.start = start;
+      this.destination = destination;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof RouteKey)) {
+        return false;
+      }
+      RouteKey key = (RouteKey) other;
+      return Objects.equals(start, key.start) && Objects.equals(destination, key.destination);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(start) + Objects.hashCode(destination);
+    }
+  }
+
+  // private class variables
+  private final int capacity;
+  private final LinkedHashMap<RouteKey, ShortestPathInterface> routes;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * constructor for the class
+   *
+   * @param capacity is the largest number of routes the cache keeps at once
+   * @throws IllegalArgumentException if capacity is less than one
+   */
+  public RouteCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Route cache capacity must be at least one");
+    }
+    this.capacity = capacity;
+    // access order makes the eldest entry the least recently used one
+    this.routes = new LinkedHashMap<RouteKey, ShortestPathInterface>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<RouteKey, ShortestPathInterface> eldest) {
+        if (size() > RouteCache.this.capacity) {
+          evictionCount++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached route between two buildings, counting a hit when it is found and a miss
+   * when it is not
+   *
+   * @param start       is the starting building of the route
+   * @param destination is the destination building of the route
+   * @return the cached route, or null when the cache does not hold it
+   */
+  public synchronized ShortestPathInterface get(String start, String destination) {
+    ShortestPathInterface route = routes.get(new RouteKey(start, destination));
+    if (route == null) {
+      missCount++;
+    } else {
+      hitCount++;
+    }
+    return route;
+  }
+
+  /**
+   * Stores the route between two buildings, evicting the least recently used route if the cache
+   * is full
+   *
+   * @param start       is the starting building of the route
+   * @param destination is the destination building of the route
+   * @param route       is the route to store, which should not be modified afterwards
+   */
+  public synchronized void put(String start, String destination, ShortestPathInterface route) {
+    routes.put(new RouteKey(start, destination), route);
+  }
+
+  /**
+   * Removes every route from the cache. The hit, miss and eviction counts are kept.
+   */
+  public synchronized void clear() {
+    routes.clear();
+  }
+
+  /**
+   * Removes every route that a filter accepts. The hit, miss and eviction counts are kept.
+   *
+   * @param filter is given each cached route and returns true for the ones to remove
+   * @return the number of routes removed
+   */
+  public synchronized int removeIf(Predicate<ShortestPathInterface> filter) {
+    int before = routes.size();
+    routes.values().removeIf(filter);
+    return before - routes.size();
+  }
+
+  /**
+   * Creates a cache with the same capacity, routes and counts as this one. The routes are kept in
+   * the same order, so they are evicted in the same order too.
+   *
+   * @return the copy of this cache
+   */
+  public synchronized RouteCache copy() {
+    RouteCache copy = new RouteCache(capacity);
+    copy.routes.putAll(routes); // entries are visited least recently used first
+    copy.hitCount = hitCount;
+    copy.missCount = missCount;
+    copy.evictionCount = evictionCount;
+    return copy;
+  }
+
+  /**
+   * getter method that returns the number of routes currently in the cache
+   *
+   * @return the number of cached routes
+   */
+  public synchronized int size() {
+    return routes.size();
+  }
+
+  /**
+   * getter method that returns the largest number of routes the cache keeps at once
+   *
+   * @return the capacity of the cache
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * getter method that returns the number of lookups that found their route in the cache
+   *
+   * @return the number of cache hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * getter method that returns the number of lookups that did not find their route in the cache
+   *
+   * @return the number of cache misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * getter method that returns the number of routes evicted to make room for newer ones
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+}
@@ -1,7 +1,8 @@
 import java.util.List;
 
 /**
- * this class stores all of the information about a shortest path between two buildings
+ * this class stores all of the information about a shortest path between two buildings, and cannot
+ * be changed once it is created, so it can be shared between callers
  * 
  * @author noahkornfeld
  *
@@ -9,9 +10,9 @@ import java.util.List;
 public class ShortestPath implements ShortestPathInterface {
 
   // private class variables
-  private List<String> path;
-  private List<Double> walkingTimes;
-  private Double totalPathCost;
+  private final List<String> path;
+  private final List<Double> walkingTimes;
+  private final Double totalPathCost;
 
   /**
    * constructor for the class
@@ -21,8 +22,8 @@ public class ShortestPath implements ShortestPathInterface {
    * @param totalPathCost is the total cost of the pah
    */
   public ShortestPath(List<String> path, List<Double> walkingTimes, Double totalPathCost) {
-    this.path = path;
-    this.walkingTimes = walkingTimes;
+    this.path = List.copyOf(path);
+    this.walkingTimes = List.copyOf(walkingTimes);
     this.totalPathCost = totalPathCost;
   }
 
@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class stores the result of running Dijkstra's algorithm from one start node until every
+ * reachable node is settled. For each node id it keeps the cost of the shortest path from the start
+ * node, the id of the node before it on that path, and the weight of the edge between them, so the
+ * path to any destination can be read back in time proportional to its length without searching
+ * again. Trees are created with DijkstraGraph.shortestPathTree() and describe the graph as it was
+ * at that moment.
+ *
+ * @param <NodeType> the type of the data stored at each graph node
+ */
+public class ShortestPathTree<NodeType> {
+
+  // snapshot of the graph the tree was grown in, used to translate between node data and ids
+  protected final FrozenGraph<NodeType> graph;
+  protected final int start;
+  // cost, predecessor id, and predecessor edge weight of each node id, -1 marks the start node
+  // and nodes that cannot be reached (which also have an infinite cost)
+  protected final double[] dist;
+  protected final int[] parent;
+  protected final double[] parentWeight;
+
+  /**
+   * constructor for the class
+   *
+   * @param graph        the snapshot the tree was grown in
+   * @param start        the id of the start node
+   * @param dist         the cost of reaching each node id
+   * @param parent       the id of the node before each node id on its shortest path
+   * @param parentWeight the weight of the edge from each node's parent to it
+   */
+  protected ShortestPathTree(FrozenGraph<NodeType> graph, int start, double[] dist, int[] parent,
+      double[] parentWeight) {
+    this.graph = graph;
+    this.start = start;
+    this.dist = dist;
+    this.parent = parent;
+    this.parentWeight = parentWeight;
+  }
+
+  /**
+   * getter method that returns the data in the start node of the tree
+   *
+   * @return the data item in the start node
+   */
+  public NodeType getStart() {
+    return graph.nodeData[start];
+  }
+
+  /**
+   * Checks whether there is a path from the start node to a destination
+   *
+   * @param destination the data item in the destination node
+   * @return true if the destination can be reached from the start node, false otherwise
+   */
+  public boolean isReachable(NodeType destination) {
+    return graph.containsNode(destination)
+        && dist[graph.idOf(destination)] < Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns the list of data values from nodes along the shortest path from the start node to the
+   * destination
+   *
+   * @param destination the data item in the destination node
+   * @return list of data item from node along this shortest path
+   * @throws NoSuchElementException when there is no path to destination or it is not a graph node
+   */
+  public List<NodeType> getPath(NodeType destination) {
+    return getResult(destination).getPath();
+  }
+
+  /**
+   * Returns the weight of each edge along the shortest path from the start node to the destination
+   *
+   * @param destination the data item in the destination node
+   * @return the list of edge weights along the path
+   * @throws NoSuchElementException when there is no path to destination or it is not a graph node
+   */
+  public List<Double> getWalkingTimes(NodeType destination) {
+    return getResult(destination).getHopCosts();
+  }
+
+  /**
+   * Returns the cost of the shortest path from the start node to the destination
+   *
+   * @param destination the data item in the destination node
+   * @return the cost of the shortest path
+   * @throws NoSuchElementException when there is no path to destination or it is not a graph node
+   */
+  public double totalPathCost(NodeType destination) {
+    return dist[reachableId(destination)];
+  }
+
+  /**
+   * Returns the node data, the weight of each hop, and the total cost of the shortest path from the
+   * start node to the destination
+   *
+   * @param destination the data item in the destination node
+   * @return the path, hop weights and total cost of the shortest path
+   * @throws NoSuchElementException when there is no path to destination or it is not a graph node
+   */
+  public PathResult<NodeType> getResult(NodeType destination) {
+    int end = reachableId(destination);
+    ArrayList<NodeType> path = new ArrayList<NodeType>();
+    ArrayList<Double> hopCosts = new ArrayList<Double>();
+    for (int current = end; current != -1; current = parent[current]) {
+      path.add(graph.nodeData[current]);
+      if (parent[current] != -1) {
+        hopCosts.add(parentWeight[current]);
+      }
+    }
+    Collections.reverse(path);
+    Collections.reverse(hopCosts);
+    return new PathResult<NodeType>(path, hopCosts, dist[end]);
+  }
+
+  /**
+   * Checks whether changing the weight of one edge could change any path in this tree. When no
+   * change made to the graph affects the tree on its own, the tree still holds shortest paths after
+   * all of them are made, since its costs then satisfy every edge of the changed graph.
+   *
+   * @param pred   the data item in the source node of the edge, which may be a new node
+   * @param succ   the data item in the target node of the edge, which may be a new node
+   * @param weight the new weight of the edge, or infinity when the edge is removed
+   * @return true if the tree may no longer hold shortest paths, false if it certainly still does
+   */
+  public boolean isAffectedBy(NodeType pred, NodeType succ, double weight) {
+    // new nodes can only be reached through other new edges, which are checked on their own
+    if (!graph.containsNode(pred) || dist[graph.idOf(pred)] == Double.POSITIVE_INFINITY) {
+      return false;
+    }
+    if (!graph.containsNode(succ)) {
+      return true;
+    }
+    int from = graph.idOf(pred);
+    int to = graph.idOf(succ);
+    return parent[to] == from || dist[from] + weight < dist[to];
+  }
+
+  /**
+   * Helper method that looks up the id of a destination the start node can reach
+   *
+   * @param destination the data item in the destination node
+   * @return the id of the destination
+   * @throws NoSuchElementException when there is no path to destination or it is not a graph node
+   */
+  protected int reachableId(NodeType destination) {
+    int end = graph.idOf(destination);
+    if (dist[end] == Double.POSITIVE_INFINITY) {
+      throw new NoSuchElementException("No Path Between Start and End Nodes");
+    }
+    return end;
+  }
+
+}